@@ -6,20 +6,28 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.example.balance.dto.OperationRequest;
 import org.example.balance.model.Transaction;
 import org.example.balance.service.AccountService;
+import org.example.balance.service.StatementExportService;
+import org.springframework.context.annotation.Profile;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/v1/accounts")
 @Tag(name = "Управление счетами", description = "Операции с банковскими счетами")
 @RequiredArgsConstructor
@@ -28,6 +36,8 @@ public class AccountController {
 
     private final AccountService accountService;
 
+    private final StatementExportService statementExportService;
+
     @PostMapping("/{id}/deposit")
     @Operation(operationId = "deposit",
             summary = "Пополнение счета",
@@ -74,7 +84,7 @@ public class AccountController {
             responses = {
                     @ApiResponse(responseCode = "200", description = "Перевод выполнен успешно",
                             content = @Content(mediaType = "application/json")),
-                    @ApiResponse(responseCode = "400", description = "Некорректный ввод",
+                    @ApiResponse(responseCode = "400", description = "Некорректный ввод или нет курса между валютами счетов",
                             content = @Content(mediaType = "application/json")),
                     @ApiResponse(responseCode = "404", description = "Один или оба счета не найдены",
                             content = @Content(mediaType = "application/json")),
@@ -97,12 +107,18 @@ public class AccountController {
                     @ApiResponse(responseCode = "200", description = "Баланс успешно получен",
                             content = @Content(mediaType = "application/json",
                                     schema = @Schema(implementation = BigDecimal.class))),
+                    @ApiResponse(responseCode = "400", description = "Нет курса для указанной валюты",
+                            content = @Content(mediaType = "application/json")),
                     @ApiResponse(responseCode = "404", description = "Счет не найден",
                             content = @Content(mediaType = "application/json"))
             })
     public BigDecimal getBalance(@Parameter(description = "Идентификатор счета", required = true)
-                                                 @PathVariable UUID id) {
-        return accountService.getBalance(id);
+                                                 @PathVariable UUID id,
+                                 @Parameter(description = "Валюта, в которой вернуть баланс (ISO 4217), по умолчанию валюта счета")
+                                                 @RequestParam(required = false) String currency) {
+        return currency == null
+                ? accountService.getBalance(id)
+                : accountService.getBalance(id, currency);
     }
 
 
@@ -111,8 +127,12 @@ public class AccountController {
             summary = "Получение выписки",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Выписка успешно получена",
-                            content = @Content(mediaType = "application/json",
-                                    schema = @Schema(implementation = Transaction.class, type = "array"))),
+                            content = {
+                                    @Content(mediaType = "application/json",
+                                            schema = @Schema(implementation = Transaction.class, type = "array")),
+                                    @Content(mediaType = "application/cbor",
+                                            schema = @Schema(implementation = Transaction.class, type = "array"))
+                            }),
                     @ApiResponse(responseCode = "400", description = "Некорректный ввод (даты указаны неверно)",
                             content = @Content(mediaType = "application/json")),
                     @ApiResponse(responseCode = "404", description = "Счет не найден",
@@ -126,5 +146,41 @@ public class AccountController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
         return accountService.getStatement(id, from, to);
     }
-}
 
+
+    @GetMapping(value = "/{id}/statement/csv", produces = "text/csv")
+    @Operation(operationId = "exportStatementCsv",
+            summary = "Выгрузка выписки в CSV",
+            description = "Потоковая выгрузка без промежуточного списка, при Accept-Encoding: gzip ответ сжимается",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Выписка успешно выгружена",
+                            content = @Content(mediaType = "text/csv")),
+                    @ApiResponse(responseCode = "400", description = "Некорректный ввод (даты указаны неверно)",
+                            content = @Content(mediaType = "application/json")),
+                    @ApiResponse(responseCode = "404", description = "Счет не найден",
+                            content = @Content(mediaType = "application/json"))
+            })
+    public void exportStatementCsv(@Parameter(description = "Идентификатор счета", required = true)
+            @PathVariable UUID id,
+            @Parameter(description = "Начальная дата выписки в формате: 2025-02-13T00:00:00", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Конечная дата выписки в формате: 2025-02-15T00:00:00", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+        // Ошибка должна уйти до того, как выставлены заголовки CSV/gzip и начат поток
+        statementExportService.checkAccountExists(id);
+
+        response.setContentType("text/csv;charset=UTF-8");
+
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            GZIPOutputStream out = new GZIPOutputStream(response.getOutputStream());
+            statementExportService.writeStatementCsv(id, from, to, out);
+            out.finish();
+        } else {
+            OutputStream out = response.getOutputStream();
+            statementExportService.writeStatementCsv(id, from, to, out);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.balance.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.example.balance.dto.ImportFormat;
+import org.example.balance.dto.ImportResponse;
+import org.example.balance.service.ImportService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/v1/admin/import")
+@Tag(name = "Импорт", description = "Массовая загрузка счетов и операций")
+@RequiredArgsConstructor
+public class ImportController {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+
+    private final ImportService importService;
+
+    @PostMapping(value = "/accounts", consumes = {"text/csv", NDJSON})
+    @Operation(operationId = "importAccounts",
+            summary = "Импорт счетов",
+            description = "CSV с заголовком id,balance,created_at[,currency] или NDJSON с полями id, balance, createdAt, currency",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Импорт выполнен успешно",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ImportResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Некорректная строка во входных данных",
+                            content = @Content(mediaType = "application/json")),
+                    @ApiResponse(responseCode = "500", description = "Внутренняя ошибка сервера",
+                            content = @Content(mediaType = "application/json"))
+            })
+    public ImportResponse importAccounts(@Parameter(description = "Идентификатор импорта для продолжения с контрольной точки", required = true)
+                                         @RequestParam String importId,
+                                         @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                         InputStream body) throws IOException {
+        return importService.importAccounts(importId, formatOf(contentType), body);
+    }
+
+
+    @PostMapping(value = "/transactions", consumes = {"text/csv", NDJSON})
+    @Operation(operationId = "importTransactions",
+            summary = "Импорт операций",
+            description = "CSV с заголовком id,account_id,to_account_id,type,amount,balance_after,created_at[,currency,to_amount] "
+                    + "(формат выгрузки /admin/statements/export) или NDJSON с полями сущности Transaction",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Импорт выполнен успешно",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ImportResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Некорректная строка во входных данных",
+                            content = @Content(mediaType = "application/json")),
+                    @ApiResponse(responseCode = "500", description = "Внутренняя ошибка сервера",
+                            content = @Content(mediaType = "application/json"))
+            })
+    public ImportResponse importTransactions(@Parameter(description = "Идентификатор импорта для продолжения с контрольной точки", required = true)
+                                             @RequestParam String importId,
+                                             @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                             InputStream body) throws IOException {
+        return importService.importTransactions(importId, formatOf(contentType), body);
+    }
+
+
+    @GetMapping("/reconcile")
+    @Operation(operationId = "reconcile",
+            summary = "Сверка балансов счетов с журналом операций",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Список счетов с расхождением",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = UUID.class, type = "array"))),
+                    @ApiResponse(responseCode = "400", description = "limit не положительный",
+                            content = @Content(mediaType = "application/json"))
+            })
+    public List<UUID> reconcile(@Parameter(description = "Максимальное количество счетов в ответе")
+                                @RequestParam(defaultValue = "100") int limit) {
+        return importService.findLedgerMismatches(limit);
+    }
+
+    private static ImportFormat formatOf(String contentType) {
+        return MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(NDJSON))
+                ? ImportFormat.NDJSON
+                : ImportFormat.CSV;
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.balance.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.example.balance.dto.OperationRequest;
+import org.example.balance.model.Transaction;
+import org.example.balance.service.ReactiveAccountService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Неблокирующий вариант {@link AccountController} на WebFlux и R2DBC, включается профилем reactive.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/v1/accounts")
+@Tag(name = "Управление счетами", description = "Операции с банковскими счетами")
+@RequiredArgsConstructor
+public class ReactiveAccountController {
+
+
+    private final ReactiveAccountService accountService;
+
+    @PostMapping("/{id}/deposit")
+    @Operation(operationId = "deposit", summary = "Пополнение счета")
+    public Mono<Void> accountReplenishment(@Parameter(description = "Идентификатор счета", required = true)
+                                           @PathVariable UUID id,
+                                           @RequestBody @Valid OperationRequest request) {
+        return accountService.accountReplenishment(id, request.getAmount());
+    }
+
+
+    @PostMapping("/{id}/withdrew")
+    @Operation(operationId = "withdrew", summary = "Списание средств")
+    public Mono<Void> accountWithdrew(@Parameter(description = "Идентификатор счета", required = true)
+                                      @PathVariable UUID id,
+                                      @RequestBody @Valid OperationRequest request) {
+        return accountService.accountWithdrew(id, request.getAmount());
+    }
+
+
+    @PostMapping("/{formId}/transfer/{toId}")
+    @Operation(operationId = "transfer", summary = "Перевод между счетами")
+    public Mono<Void> transferFromAccountToAccount(@Parameter(description = "Идентификатор счета отправителя", required = true)
+                                                   @PathVariable UUID formId,
+                                                   @Parameter(description = "Идентификатор счета получателя", required = true)
+                                                   @PathVariable UUID toId,
+                                                   @RequestBody @Valid OperationRequest request) {
+        return accountService.transferFromAccountToAccount(formId, toId, request.getAmount());
+    }
+
+
+    @GetMapping("/{id}/balance")
+    @Operation(operationId = "getBalance", summary = "Получение баланса")
+    public Mono<BigDecimal> getBalance(@Parameter(description = "Идентификатор счета", required = true)
+                                       @PathVariable UUID id,
+                                       @Parameter(description = "Валюта, в которой вернуть баланс (ISO 4217), по умолчанию валюта счета")
+                                       @RequestParam(required = false) String currency) {
+        return currency == null
+                ? accountService.getBalance(id)
+                : accountService.getBalance(id, currency);
+    }
+
+
+    // Для application/x-ndjson выписка отдается построчно по мере чтения из БД, с учетом backpressure
+    @GetMapping(value = "/{id}/statement",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(operationId = "getStatement", summary = "Получение выписки")
+    public Flux<Transaction> getStatement(@Parameter(description = "Идентификатор счета", required = true)
+            @PathVariable UUID id,
+            @Parameter(description = "Начальная дата выписки в формате: 2025-02-13T00:00:00", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Конечная дата выписки в формате: 2025-02-15T00:00:00", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return accountService.getStatement(id, from, to);
+    }
+}
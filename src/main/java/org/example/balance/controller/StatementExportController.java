@@ -0,0 +1,51 @@
+package org.example.balance.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.example.balance.dto.StatementExportResponse;
+import org.example.balance.service.StatementExportService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/v1/admin/statements")
+@Tag(name = "Выгрузка выписок", description = "Массовая выгрузка выписок по всем счетам")
+@RequiredArgsConstructor
+public class StatementExportController {
+
+
+    private final StatementExportService statementExportService;
+
+    @PostMapping("/export")
+    @Operation(operationId = "exportAllStatements",
+            summary = "Выгрузка выписок всех счетов за период в локальный файл",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Выгрузка выполнена успешно",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = StatementExportResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Некорректный ввод (даты указаны неверно)",
+                            content = @Content(mediaType = "application/json")),
+                    @ApiResponse(responseCode = "500", description = "Внутренняя ошибка сервера",
+                            content = @Content(mediaType = "application/json"))
+            })
+    public StatementExportResponse exportAllStatements(
+            @Parameter(description = "Начальная дата периода в формате: 2025-02-13T00:00:00", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Конечная дата периода в формате: 2025-02-15T00:00:00", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) throws IOException {
+        Path file = statementExportService.exportAllStatements(from, to);
+        return new StatementExportResponse(file.toString(), Files.size(file));
+    }
+}
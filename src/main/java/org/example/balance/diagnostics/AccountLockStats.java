@@ -0,0 +1,50 @@
+package org.example.balance.diagnostics;
+
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Накопленная статистика ожиданий блокировок по одному счету.
+ * Каждое наблюдение — одна выборка, в которой сессия приложения ждала блокировку по операции с этим счетом.
+ */
+public class AccountLockStats {
+
+    @Getter
+    private final UUID accountId;
+
+    private final LongAdder waitSamples = new LongAdder();
+
+    private final AtomicLong maxWaitMillis = new AtomicLong();
+
+    private final Map<String, LongAdder> samplesByOperation = new ConcurrentHashMap<>();
+
+    public AccountLockStats(UUID accountId) {
+        this.accountId = accountId;
+    }
+
+    void record(String operation, long waitMillis) {
+        waitSamples.increment();
+        maxWaitMillis.accumulateAndGet(waitMillis, Math::max);
+        samplesByOperation.computeIfAbsent(operation, key -> new LongAdder()).increment();
+    }
+
+    public long getWaitSamples() {
+        return waitSamples.sum();
+    }
+
+    public long getMaxWaitMillis() {
+        return maxWaitMillis.get();
+    }
+
+    public Map<String, Long> getSamplesByOperation() {
+        Map<String, Long> result = new TreeMap<>();
+        samplesByOperation.forEach((operation, samples) -> result.put(operation, samples.sum()));
+        return result;
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.balance.diagnostics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.context.annotation.Profile;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Actuator-эндпоинт /actuator/hotaccounts: топ счетов по ожиданиям блокировок.
+ */
+@Component
+@Profile("!reactive")
+@Endpoint(id = "hotaccounts")
+@RequiredArgsConstructor
+public class HotAccountsEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final LockDiagnostics lockDiagnostics;
+
+    @ReadOperation
+    public List<AccountLockStats> hotAccounts(@Nullable Integer limit) {
+        if (limit != null && limit < 0) {
+            // Actuator отвечает 400 на InvalidEndpointRequestException
+            throw new InvalidEndpointRequestException("limit должен быть неотрицательным: " + limit, "Invalid limit");
+        }
+        return lockDiagnostics.topAccounts(limit == null ? DEFAULT_LIMIT : limit);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        lockDiagnostics.reset();
+    }
+}
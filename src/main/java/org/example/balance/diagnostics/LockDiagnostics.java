@@ -0,0 +1,163 @@
+package org.example.balance.diagnostics;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Диагностика ожиданий блокировок для операций со счетами.
+ * <p>
+ * Сервис перед блокировкой каждой строки счета регистрирует операцию и счет через {@link #register}:
+ * запоминается PID серверного процесса текущего соединения (берется из PgJDBC без запроса к БД).
+ * Периодическая выборка из pg_locks и pg_stat_activity находит сессии приложения, ждущие блокировку,
+ * и по PID относит ожидание к последнему зарегистрированному счету — строке, которую сессия сейчас блокирует.
+ * Ожидания дольше порога пишутся в лог одной записью ключ=значение.
+ * <p>
+ * Статистика хранится не более чем по max-accounts счетам: новые счета сверх лимита не учитываются
+ * до сброса через DELETE /actuator/hotaccounts.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class LockDiagnostics {
+
+    private static final String WAITING_SESSIONS_SQL = """
+            SELECT a.pid,
+                   (extract(epoch FROM now() - coalesce(l.waitstart, a.state_change)) * 1000)::bigint AS wait_ms,
+                   coalesce(l.waitstart, a.state_change) AS wait_start,
+                   array_to_string(pg_blocking_pids(a.pid), ',') AS blocking_pids
+            FROM pg_stat_activity a
+            JOIN pg_locks l ON l.pid = a.pid AND NOT l.granted
+            WHERE a.datname = current_database()
+              AND a.application_name = ?
+              AND a.wait_event_type = 'Lock'""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Integer, LockContext> sessions = new ConcurrentHashMap<>();
+
+    private final Map<UUID, AccountLockStats> accountStats = new ConcurrentHashMap<>();
+
+    // Уже залогированные ожидания: PID -> момент начала ожидания
+    private final Map<Integer, String> loggedWaits = new ConcurrentHashMap<>();
+
+    @Value("${balance.diagnostics.lock.enabled:true}")
+    private boolean enabled;
+
+    @Value("${balance.diagnostics.lock.threshold-ms:200}")
+    private long thresholdMillis;
+
+    @Value("${balance.diagnostics.lock.max-accounts:10000}")
+    private int maxAccounts;
+
+    @Value("${spring.datasource.hikari.data-source-properties.ApplicationName:balance}")
+    private String applicationName;
+
+    /**
+     * Связывает соединение текущей транзакции с операцией до завершения транзакции. Вызывается перед
+     * блокировкой каждого счета: ожидание относится к последнему зарегистрированному счету.
+     */
+    public void register(String operation, UUID accountId) {
+        if (!enabled || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Integer pid = jdbcTemplate.execute((ConnectionCallback<Integer>) connection ->
+                connection.unwrap(PGConnection.class).getBackendPID());
+        if (pid == null) {
+            return;
+        }
+        LockContext previous = sessions.get(pid);
+        if (previous != null) {
+            List<UUID> accountIds = new ArrayList<>(previous.accountIds());
+            accountIds.add(accountId);
+            sessions.put(pid, new LockContext(operation, accountId, List.copyOf(accountIds)));
+            return;
+        }
+        sessions.put(pid, new LockContext(operation, accountId, List.of(accountId)));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                sessions.remove(pid);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${balance.diagnostics.lock.sample-interval-ms:1000}")
+    public void sample() {
+        if (!enabled || sessions.isEmpty() && loggedWaits.isEmpty()) {
+            return;
+        }
+        Set<Integer> waiting = new HashSet<>();
+        try {
+            jdbcTemplate.query(WAITING_SESSIONS_SQL, (RowCallbackHandler) rs -> {
+                int pid = rs.getInt("pid");
+                long waitMillis = rs.getLong("wait_ms");
+                String waitStart = String.valueOf(rs.getObject("wait_start"));
+                waiting.add(pid);
+                LockContext context = sessions.get(pid);
+                if (context == null) {
+                    return;
+                }
+                AccountLockStats stats = accountStats.size() < maxAccounts
+                        ? accountStats.computeIfAbsent(context.waitingOn(), AccountLockStats::new)
+                        : accountStats.get(context.waitingOn());
+                if (stats != null) {
+                    stats.record(context.operation(), waitMillis);
+                }
+                if (waitMillis >= thresholdMillis && !waitStart.equals(loggedWaits.put(pid, waitStart))) {
+                    log.warn("lock_wait operation={} waiting_on={} accounts={} pid={} wait_ms={} blocking_pids={} blocking_operations={}",
+                            context.operation(), context.waitingOn(), context.accountIds(), pid, waitMillis,
+                            rs.getString("blocking_pids"), blockingOperations(rs.getString("blocking_pids")));
+                }
+            }, applicationName);
+        } catch (DataAccessException e) {
+            log.debug("Не удалось получить выборку блокировок", e);
+            return;
+        }
+        loggedWaits.keySet().retainAll(waiting);
+    }
+
+    /**
+     * Счета с наибольшим числом выборок, в которых операции с ними ждали блокировку.
+     */
+    public List<AccountLockStats> topAccounts(int limit) {
+        return accountStats.values().stream()
+                .sorted(Comparator.comparingLong(AccountLockStats::getWaitSamples).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public void reset() {
+        accountStats.clear();
+    }
+
+    private List<String> blockingOperations(String blockingPids) {
+        if (blockingPids == null || blockingPids.isEmpty()) {
+            return List.of();
+        }
+        List<String> operations = new ArrayList<>();
+        for (String pid : blockingPids.split(",")) {
+            LockContext context = sessions.get(Integer.valueOf(pid));
+            operations.add(context == null ? "unknown" : context.operation() + context.accountIds());
+        }
+        return operations;
+    }
+
+    // waitingOn — счет, который сессия блокирует сейчас, accountIds — все счета, зарегистрированные в транзакции
+    private record LockContext(String operation, UUID waitingOn, List<UUID> accountIds) {
+    }
+}
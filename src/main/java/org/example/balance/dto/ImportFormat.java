@@ -0,0 +1,6 @@
+package org.example.balance.dto;
+
+public enum ImportFormat {
+    CSV,    // text/csv, первая строка — заголовок
+    NDJSON  // application/x-ndjson, один JSON-объект на строку
+}
@@ -0,0 +1,24 @@
+package org.example.balance.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Schema(description = "Результат массового импорта")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResponse {
+
+    @Schema(description = "Идентификатор импорта, по нему продолжается прерванная загрузка", example = "partner-2025-02")
+    private String importId;
+
+    @Schema(description = "Загружено строк в этом запуске", example = "1000000")
+    private long rowsImported;
+
+    @Schema(description = "Пропущено строк, загруженных в предыдущих запусках", example = "0")
+    private long rowsSkipped;
+
+}
@@ -0,0 +1,21 @@
+package org.example.balance.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Schema(description = "Результат выгрузки выписок")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatementExportResponse {
+
+    @Schema(description = "Путь к файлу выгрузки (CSV, gzip)", example = "/tmp/statements_20250213T000000_20250215T000000.csv.gz")
+    private String file;
+
+    @Schema(description = "Размер файла в байтах", example = "1048576")
+    private long size;
+
+}
@@ -0,0 +1,8 @@
+package org.example.balance.exception;
+
+public class ExchangeRateNotFoundException extends RuntimeException {
+
+    public ExchangeRateNotFoundException(String from, String to) {
+        super("Нет курса для конвертации " + from + " -> " + to);
+    }
+}
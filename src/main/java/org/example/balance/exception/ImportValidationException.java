@@ -0,0 +1,12 @@
+package org.example.balance.exception;
+
+public class ImportValidationException extends RuntimeException {
+
+    public ImportValidationException(String message) {
+        super(message);
+    }
+
+    public ImportValidationException(long lineNumber, String message) {
+        super("Ошибка в строке " + lineNumber + ": " + message);
+    }
+}
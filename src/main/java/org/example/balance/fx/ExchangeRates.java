@@ -0,0 +1,166 @@
+package org.example.balance.fx;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.example.balance.exception.ExchangeRateNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Таблица курсов валют в памяти.
+ * <p>
+ * Курсы читаются из файла свойств вида {@code USD=92.50} (стоимость единицы валюты в базовой валюте)
+ * и периодически перечитываются при изменении файла. Новая таблица строится целиком и подменяется
+ * одной записью volatile-ссылки, поэтому чтение на горячем пути идет без блокировок и всегда видит
+ * согласованный набор курсов.
+ * <p>
+ * Кросс-курсы хранятся как long с {@link #RATE_SCALE} знаками после запятой, конвертация сумм
+ * в копейках выполняется целочисленно. BigDecimal используется только при построении таблицы
+ * и для сумм, произведение которых на курс не помещается в long.
+ */
+@Slf4j
+@Component
+public class ExchangeRates {
+
+    public static final int RATE_SCALE = 8;
+
+    private static final long RATE_ONE = 100_000_000L;
+
+    @Value("${balance.fx.base-currency:RUB}")
+    private String baseCurrency;
+
+    @Value("${balance.fx.rates-file:}")
+    private String ratesFile;
+
+    private volatile Snapshot snapshot;
+
+    private volatile FileTime loadedModified;
+
+    @PostConstruct
+    void init() {
+        snapshot = Snapshot.of(baseCurrency, Map.of());
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${balance.fx.refresh-interval-ms:60000}")
+    public void refresh() {
+        if (ratesFile == null || ratesFile.isBlank()) {
+            return;
+        }
+        Path path = Path.of(ratesFile);
+        try {
+            FileTime modified = Files.getLastModifiedTime(path);
+            if (modified.equals(loadedModified)) {
+                return;
+            }
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+            Map<String, BigDecimal> rates = new HashMap<>();
+            properties.forEach((currency, rate) ->
+                    rates.put(currency.toString().trim(), new BigDecimal(rate.toString().trim())));
+            update(rates);
+            loadedModified = modified;
+            log.info("fx_rates_loaded file={} currencies={}", path, rates.keySet());
+        } catch (IOException | RuntimeException e) {
+            // Остаемся на предыдущей таблице курсов
+            log.warn("Не удалось загрузить курсы валют из {}", path, e);
+        }
+    }
+
+    /**
+     * Атомарно заменяет таблицу курсов. Ключ — код валюты, значение — стоимость единицы валюты в базовой.
+     */
+    public void update(Map<String, BigDecimal> ratesToBase) {
+        snapshot = Snapshot.of(baseCurrency, ratesToBase);
+    }
+
+    /**
+     * Конвертирует сумму в копейках с округлением половины вверх.
+     */
+    public long convertCents(long cents, String from, String to) {
+        if (from.equals(to)) {
+            return cents;
+        }
+        long rate = snapshot.rate(from, to);
+        long product;
+        try {
+            product = Math.multiplyExact(cents, rate);
+            return Math.floorDiv(Math.addExact(product, RATE_ONE / 2), RATE_ONE);
+        } catch (ArithmeticException e) {
+            return BigInteger.valueOf(cents).multiply(BigInteger.valueOf(rate))
+                    .add(BigInteger.valueOf(RATE_ONE / 2))
+                    .divide(BigInteger.valueOf(RATE_ONE))
+                    .longValueExact();
+        }
+    }
+
+    public BigDecimal convert(BigDecimal amount, String from, String to) {
+        if (from.equals(to)) {
+            return amount;
+        }
+        long cents = amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        return BigDecimal.valueOf(convertCents(cents, from, to), 2);
+    }
+
+    private static final class Snapshot {
+
+        private final Map<String, Integer> index;
+
+        // crossRates[i][j] — стоимость единицы валюты i в валюте j, масштаб RATE_SCALE
+        private final long[][] crossRates;
+
+        private Snapshot(Map<String, Integer> index, long[][] crossRates) {
+            this.index = index;
+            this.crossRates = crossRates;
+        }
+
+        static Snapshot of(String baseCurrency, Map<String, BigDecimal> ratesToBase) {
+            Map<String, BigDecimal> rates = new HashMap<>(ratesToBase);
+            rates.put(baseCurrency, BigDecimal.ONE);
+
+            Map<String, Integer> index = new HashMap<>();
+            BigDecimal[] values = new BigDecimal[rates.size()];
+            for (Map.Entry<String, BigDecimal> entry : rates.entrySet()) {
+                if (entry.getValue().signum() <= 0) {
+                    throw new IllegalArgumentException("Курс должен быть положительным: " + entry.getKey());
+                }
+                values[index.size()] = entry.getValue();
+                index.put(entry.getKey(), index.size());
+            }
+
+            long[][] crossRates = new long[values.length][values.length];
+            for (int i = 0; i < values.length; i++) {
+                for (int j = 0; j < values.length; j++) {
+                    crossRates[i][j] = values[i].divide(values[j], RATE_SCALE, RoundingMode.HALF_UP)
+                            .unscaledValue().longValueExact();
+                }
+            }
+            return new Snapshot(Map.copyOf(index), crossRates);
+        }
+
+        long rate(String from, String to) {
+            Integer i = index.get(from);
+            Integer j = index.get(to);
+            if (i == null || j == null) {
+                throw new ExchangeRateNotFoundException(from, to);
+            }
+            return crossRates[i][j];
+        }
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.*;
 
 import java.math.BigDecimal;
@@ -14,17 +15,28 @@ import java.util.UUID;
 @Table(name = "accounts")
 @Getter
 @Setter
+@Builder
 @EqualsAndHashCode(of = "id")
 @NoArgsConstructor
 @AllArgsConstructor
 public class Account {
 
+    public static final String DEFAULT_CURRENCY = "RUB";
+
     @Id
     private UUID id;
 
     @Column(precision = 19, scale = 2, nullable = false)
     private BigDecimal balance;
 
+    // Код валюты ISO 4217
+    @Column(length = 3, nullable = false)
+    @Builder.Default
+    private String currency = DEFAULT_CURRENCY;
+
     private LocalDateTime createdAt;
 
+    @Version
+    private Long version;
+
 }
@@ -0,0 +1,9 @@
+package org.example.balance.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Баланс счета и его валюта без загрузки сущности.
+ */
+public record AccountBalance(BigDecimal balance, String currency) {
+}
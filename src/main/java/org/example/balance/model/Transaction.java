@@ -34,6 +34,14 @@ public class Transaction {
     @Column(precision = 19, scale = 2, nullable = false)
     private BigDecimal balanceAfter;
 
+    // Валюта amount и balanceAfter, совпадает с валютой счета accountId
+    @Column(length = 3, nullable = false)
+    private String currency;
+
+    // Сумма зачисления в валюте счета получателя, заполняется только для перевода между валютами
+    @Column(precision = 19, scale = 2)
+    private BigDecimal toAmount;
+
     private LocalDateTime createdAt;
 
 }
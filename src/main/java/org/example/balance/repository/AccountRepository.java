@@ -1,14 +1,28 @@
 package org.example.balance.repository;
 
 
+import jakarta.persistence.LockModeType;
 import org.example.balance.model.Account;
+import org.example.balance.model.AccountBalance;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, UUID> {
 
+    // Чтение счета с блокировкой строки до конца транзакции (SELECT ... FOR UPDATE), вызывать внутри транзакции
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.id = :id")
+    Optional<Account> findByIdForUpdate(@Param("id") UUID id);
+
+    // Баланс и валюта одним запросом без загрузки сущности в контекст персистентности
+    @Query("select new org.example.balance.model.AccountBalance(a.balance, a.currency) from Account a where a.id = :id")
+    Optional<AccountBalance> findBalanceById(@Param("id") UUID id);
 }
@@ -0,0 +1,62 @@
+package org.example.balance.repository;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.example.balance.model.Account;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveAccountRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Account> findById(UUID id) {
+        return databaseClient.sql("SELECT id, balance, currency, created_at, version FROM accounts WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveAccountRepository::toAccount)
+                .one();
+    }
+
+    // Блокировка строки счета до конца транзакции
+    public Mono<Account> findByIdForUpdate(UUID id) {
+        return databaseClient.sql("SELECT id, balance, currency, created_at, version FROM accounts WHERE id = :id FOR UPDATE")
+                .bind("id", id)
+                .map(ReactiveAccountRepository::toAccount)
+                .one();
+    }
+
+    public Mono<Boolean> existsById(UUID id) {
+        return databaseClient.sql("SELECT 1 FROM accounts WHERE id = :id")
+                .bind("id", id)
+                .map(row -> Boolean.TRUE)
+                .first()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+
+    // Версия увеличивается так же, как при обновлении через JPA
+    public Mono<Void> updateBalance(Account account) {
+        return databaseClient.sql("UPDATE accounts SET balance = :balance, version = version + 1 WHERE id = :id")
+                .bind("balance", account.getBalance())
+                .bind("id", account.getId())
+                .then();
+    }
+
+    private static Account toAccount(Readable row) {
+        return Account.builder()
+                .id(row.get("id", UUID.class))
+                .balance(row.get("balance", BigDecimal.class))
+                .currency(row.get("currency", String.class))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .version(row.get("version", Long.class))
+                .build();
+    }
+}
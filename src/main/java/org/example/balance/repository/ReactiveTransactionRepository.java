@@ -0,0 +1,84 @@
+package org.example.balance.repository;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.example.balance.model.Transaction;
+import org.example.balance.model.TransactionType;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveTransactionRepository {
+
+    // Размер порции курсора: строки читаются из БД по мере запроса подписчиком
+    private static final int FETCH_SIZE = 500;
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Void> save(Transaction transaction) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("""
+                        INSERT INTO transactions (id, account_id, to_account_id, type, amount, balance_after, created_at,
+                                                  currency, to_amount)
+                        VALUES (:id, :accountId, :toAccountId, :type, :amount, :balanceAfter, :createdAt,
+                                :currency, :toAmount)""")
+                .bind("id", transaction.getId())
+                .bind("accountId", transaction.getAccountId())
+                .bind("type", transaction.getType().name())
+                .bind("amount", transaction.getAmount())
+                .bind("balanceAfter", transaction.getBalanceAfter())
+                .bind("createdAt", transaction.getCreatedAt())
+                .bind("currency", transaction.getCurrency());
+        spec = transaction.getToAccountId() != null
+                ? spec.bind("toAccountId", transaction.getToAccountId())
+                : spec.bindNull("toAccountId", UUID.class);
+        spec = transaction.getToAmount() != null
+                ? spec.bind("toAmount", transaction.getToAmount())
+                : spec.bindNull("toAmount", BigDecimal.class);
+        return spec.then();
+    }
+
+    // Выписка из основной и архивной таблиц одним запросом. Архивная часть выполняется, только если период
+    // начинается раньше границы архива; граница читается в том же снимке, что и строки, поэтому параллельный
+    // перенос порции не теряет и не дублирует операции
+    public Flux<Transaction> findWithArchiveByAccountIdAndCreatedAtBetween(UUID accountId, LocalDateTime from, LocalDateTime to) {
+        return databaseClient.sql("""
+                        SELECT id, account_id, to_account_id, type, amount, balance_after, created_at, currency, to_amount
+                        FROM transactions
+                        WHERE account_id = :accountId AND created_at BETWEEN :from AND :to
+                        UNION ALL
+                        SELECT id, account_id, to_account_id, type, amount, balance_after, created_at, currency, to_amount
+                        FROM transactions_archive
+                        WHERE account_id = :accountId AND created_at BETWEEN :from AND :to
+                          AND EXISTS (SELECT 1 FROM archive_watermark WHERE archived_before > :from)
+                        ORDER BY created_at""")
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .bind("accountId", accountId)
+                .bind("from", from)
+                .bind("to", to)
+                .map(ReactiveTransactionRepository::toTransaction)
+                .all();
+    }
+
+    private static Transaction toTransaction(Readable row) {
+        return Transaction.builder()
+                .id(row.get("id", UUID.class))
+                .accountId(row.get("account_id", UUID.class))
+                .toAccountId(row.get("to_account_id", UUID.class))
+                .type(TransactionType.valueOf(row.get("type", String.class)))
+                .amount(row.get("amount", BigDecimal.class))
+                .balanceAfter(row.get("balance_after", BigDecimal.class))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .currency(row.get("currency", String.class))
+                .toAmount(row.get("to_amount", BigDecimal.class))
+                .build();
+    }
+}
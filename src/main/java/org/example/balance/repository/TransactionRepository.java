@@ -1,16 +1,49 @@
 package org.example.balance.repository;
 
+import jakarta.persistence.QueryHint;
 import org.example.balance.model.Transaction;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
 
+    // Выписка из основной и архивной таблиц одним запросом, чтобы параллельная архивация не теряла и не дублировала строки.
+    // Архивная часть выполняется, только если период начинается раньше границы архива; граница читается
+    // в том же снимке, что и строки
+    String STATEMENT_WITH_ARCHIVE_SQL = """
+            SELECT id, account_id, to_account_id, type, amount, balance_after, created_at, currency, to_amount FROM transactions
+            WHERE account_id = :accountId AND created_at BETWEEN :from AND :to
+            UNION ALL
+            SELECT id, account_id, to_account_id, type, amount, balance_after, created_at, currency, to_amount FROM transactions_archive
+            WHERE account_id = :accountId AND created_at BETWEEN :from AND :to
+              AND EXISTS (SELECT 1 FROM archive_watermark WHERE archived_before > :from)
+            ORDER BY created_at""";
+
     // Метод для поиска транзакций по счету за определенный период
     List<Transaction> findByAccountIdAndCreatedAtBetween(UUID accountId, LocalDateTime from, LocalDateTime to);
+
+    @Query(value = STATEMENT_WITH_ARCHIVE_SQL, nativeQuery = true)
+    List<Transaction> findWithArchiveByAccountIdAndCreatedAtBetween(@Param("accountId") UUID accountId,
+                                                                    @Param("from") LocalDateTime from,
+                                                                    @Param("to") LocalDateTime to);
+
+    // Потоковое чтение выписки для экспорта, вызывать внутри транзакции
+    @Query(value = STATEMENT_WITH_ARCHIVE_SQL, nativeQuery = true)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Transaction> streamWithArchiveByAccountIdAndCreatedAtBetween(@Param("accountId") UUID accountId,
+                                                                       @Param("from") LocalDateTime from,
+                                                                       @Param("to") LocalDateTime to);
 }
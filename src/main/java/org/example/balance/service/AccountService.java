@@ -15,5 +15,6 @@ public interface AccountService {
     void accountWithdrew(UUID accountId, BigDecimal amount);
     void transferFromAccountToAccount(UUID fromId, UUID toId, BigDecimal amount);
     BigDecimal getBalance(UUID accountId);
+    BigDecimal getBalance(UUID accountId, String currency);
     List<Transaction> getStatement(UUID accountId, LocalDateTime from, LocalDateTime to);
 }
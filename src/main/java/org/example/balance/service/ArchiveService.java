@@ -0,0 +1,9 @@
+package org.example.balance.service;
+
+
+import java.time.LocalDateTime;
+
+public interface ArchiveService {
+
+    long archiveTransactions(LocalDateTime before);
+}
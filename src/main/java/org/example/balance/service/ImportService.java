@@ -0,0 +1,17 @@
+package org.example.balance.service;
+
+
+import org.example.balance.dto.ImportFormat;
+import org.example.balance.dto.ImportResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+
+public interface ImportService {
+
+    ImportResponse importAccounts(String importId, ImportFormat format, InputStream in) throws IOException;
+    ImportResponse importTransactions(String importId, ImportFormat format, InputStream in) throws IOException;
+    List<UUID> findLedgerMismatches(int limit);
+}
@@ -0,0 +1,20 @@
+package org.example.balance.service;
+
+
+import org.example.balance.model.Transaction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface ReactiveAccountService {
+
+    Mono<Void> accountReplenishment(UUID accountId, BigDecimal amount);
+    Mono<Void> accountWithdrew(UUID accountId, BigDecimal amount);
+    Mono<Void> transferFromAccountToAccount(UUID fromId, UUID toId, BigDecimal amount);
+    Mono<BigDecimal> getBalance(UUID accountId);
+    Mono<BigDecimal> getBalance(UUID accountId, String currency);
+    Flux<Transaction> getStatement(UUID accountId, LocalDateTime from, LocalDateTime to);
+}
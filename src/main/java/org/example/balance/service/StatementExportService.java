@@ -0,0 +1,22 @@
+package org.example.balance.service;
+
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface StatementExportService {
+
+    /**
+     * Проверяет, что счет существует. Вызывается до того, как ответ начнет заполняться заголовками и телом выгрузки.
+     */
+    void checkAccountExists(UUID accountId);
+
+    /**
+     * Пишет выписку в CSV. Существование счета не проверяет: вызывающий делает это через {@link #checkAccountExists}.
+     */
+    void writeStatementCsv(UUID accountId, LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException;
+    Path exportAllStatements(LocalDateTime from, LocalDateTime to) throws IOException;
+}
@@ -3,24 +3,30 @@ package org.example.balance.service.impl;
 
 
 import lombok.RequiredArgsConstructor;
+import org.example.balance.diagnostics.LockDiagnostics;
 import org.example.balance.exception.AccountNotFoundException;
 import org.example.balance.exception.InsufficientFundsException;
+import org.example.balance.fx.ExchangeRates;
 import org.example.balance.model.Account;
+import org.example.balance.model.AccountBalance;
 import org.example.balance.model.Transaction;
 import org.example.balance.model.TransactionType;
 import org.example.balance.repository.AccountRepository;
 import org.example.balance.repository.TransactionRepository;
 import org.example.balance.service.AccountService;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 
 @Service
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class AccountServiceImpl implements AccountService {
 
@@ -28,10 +34,15 @@ public class AccountServiceImpl implements AccountService {
 
     private final TransactionRepository transactionRepository;
 
+    private final LockDiagnostics lockDiagnostics;
+
+    private final ExchangeRates exchangeRates;
+
     @Override
     @Transactional
     public void accountReplenishment(UUID accountId, BigDecimal amount) {
-        Account account = accountRepository.findById(accountId)
+        lockDiagnostics.register("deposit", accountId);
+        Account account = accountRepository.findByIdForUpdate(accountId)
                 .orElseThrow(() -> new AccountNotFoundException(accountId));
         account.setBalance(account.getBalance().add(amount));
         accountRepository.save(account);
@@ -47,13 +58,14 @@ public class AccountServiceImpl implements AccountService {
                 .type(type)
                 .amount(amount)
                 .balanceAfter(account.getBalance())
+                .currency(account.getCurrency())
                 .createdAt(LocalDateTime.now())
                 .build();
 
         transactionRepository.save(transaction);
     }
 
-    private void creatTransferTransaction(Account from, Account to, BigDecimal amount) {
+    private void creatTransferTransaction(Account from, Account to, BigDecimal amount, BigDecimal toAmount) {
         Transaction transaction = Transaction.builder()
                 .id(UUID.randomUUID())
                 .accountId(from.getId())
@@ -61,6 +73,8 @@ public class AccountServiceImpl implements AccountService {
                 .type(TransactionType.TRANSFER)
                 .amount(amount)
                 .balanceAfter(from.getBalance())
+                .currency(from.getCurrency())
+                .toAmount(toAmount)
                 .createdAt(LocalDateTime.now())
                 .build();
 
@@ -70,7 +84,8 @@ public class AccountServiceImpl implements AccountService {
     @Override
     @Transactional
     public void accountWithdrew(UUID accountId, BigDecimal amount) {
-        Account account = accountRepository.findById(accountId)
+        lockDiagnostics.register("withdraw", accountId);
+        Account account = accountRepository.findByIdForUpdate(accountId)
                 .orElseThrow(() -> new AccountNotFoundException(accountId));
         if (account.getBalance().compareTo(amount) < 0) {
             throw new InsufficientFundsException(accountId);
@@ -84,14 +99,15 @@ public class AccountServiceImpl implements AccountService {
     @Override
     @Transactional
     public void transferFromAccountToAccount(UUID fromId, UUID toId, BigDecimal amount) {
-
-
         UUID firstLock = fromId.compareTo(toId) < 0 ? fromId : toId;
         UUID secondLock = fromId.compareTo(toId) < 0 ? toId : fromId;
 
-        Account firstAccount = accountRepository.findById(firstLock)
+        // Каждый счет регистрируется перед своей блокировкой, чтобы ожидание относилось к строке, которую ждут
+        lockDiagnostics.register("transfer", firstLock);
+        Account firstAccount = accountRepository.findByIdForUpdate(firstLock)
                 .orElseThrow(() -> new AccountNotFoundException(firstLock));
-        Account secondAccount = accountRepository.findById(secondLock)
+        lockDiagnostics.register("transfer", secondLock);
+        Account secondAccount = accountRepository.findByIdForUpdate(secondLock)
                 .orElseThrow(() -> new AccountNotFoundException(secondLock));
 
         Account from = firstAccount.getId().equals(fromId) ? firstAccount : secondAccount;
@@ -101,20 +117,37 @@ public class AccountServiceImpl implements AccountService {
             throw new InsufficientFundsException(fromId);
         }
 
+        // Для счетов в разных валютах получателю зачисляется сумма по текущему курсу
+        boolean sameCurrency = Objects.equals(from.getCurrency(), to.getCurrency());
+        BigDecimal credited = sameCurrency
+                ? amount
+                : exchangeRates.convert(amount, from.getCurrency(), to.getCurrency());
+
         from.setBalance(from.getBalance().subtract(amount));
-        to.setBalance(to.getBalance().add(amount));
+        to.setBalance(to.getBalance().add(credited));
 
         accountRepository.save(from);
         accountRepository.save(to);
 
-        creatTransferTransaction(from, to, amount);
+        creatTransferTransaction(from, to, amount, sameCurrency ? null : credited);
     }
 
     @Override
     public BigDecimal getBalance(UUID accountId) {
-        return accountRepository.findById(accountId)
-                .orElseThrow(() -> new AccountNotFoundException(accountId))
-                .getBalance();
+        return findBalance(accountId).balance();
+    }
+
+    @Override
+    public BigDecimal getBalance(UUID accountId, String currency) {
+        AccountBalance balance = findBalance(accountId);
+        return Objects.equals(balance.currency(), currency)
+                ? balance.balance()
+                : exchangeRates.convert(balance.balance(), balance.currency(), currency);
+    }
+
+    private AccountBalance findBalance(UUID accountId) {
+        return accountRepository.findBalanceById(accountId)
+                .orElseThrow(() -> new AccountNotFoundException(accountId));
     }
 
     @Override
@@ -124,6 +157,6 @@ public class AccountServiceImpl implements AccountService {
             throw new AccountNotFoundException(accountId);
         }
 
-        return transactionRepository.findByAccountIdAndCreatedAtBetween(accountId, from, to);
+        return transactionRepository.findWithArchiveByAccountIdAndCreatedAtBetween(accountId, from, to);
     }
 }
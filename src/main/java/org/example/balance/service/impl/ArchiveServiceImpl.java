@@ -0,0 +1,82 @@
+package org.example.balance.service.impl;
+
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.balance.service.ArchiveService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+
+/**
+ * Перенос операций старше горизонта из transactions в холодную таблицу transactions_archive.
+ * Перенос идет порциями, каждая порция — отдельная транзакция DELETE ... RETURNING + INSERT,
+ * поэтому строка всегда находится ровно в одной из таблиц.
+ * <p>
+ * Вместе с порцией в archive_watermark сдвигается граница архива. Запросы выписки проверяют эту
+ * границу в том же SQL, что и читают строки, а не по настройкам задачи, поэтому отключение архивации
+ * или смена горизонта не скрывают уже перенесенные операции.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ArchiveServiceImpl implements ArchiveService {
+
+    private static final String MOVE_BATCH_SQL = """
+            WITH moved AS (
+                DELETE FROM transactions
+                WHERE id IN (SELECT id FROM transactions WHERE created_at < ? ORDER BY created_at LIMIT ?)
+                RETURNING id, account_id, to_account_id, type, amount, balance_after, created_at, currency, to_amount)
+            INSERT INTO transactions_archive (id, account_id, to_account_id, type, amount, balance_after, created_at, currency, to_amount)
+            SELECT id, account_id, to_account_id, type, amount, balance_after, created_at, currency, to_amount FROM moved""";
+
+    private static final String ADVANCE_WATERMARK_SQL = """
+            INSERT INTO archive_watermark (id, archived_before) VALUES (1, ?)
+            ON CONFLICT (id) DO UPDATE
+            SET archived_before = GREATEST(archive_watermark.archived_before, EXCLUDED.archived_before)""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${balance.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${balance.archive.horizon-days:365}")
+    private long horizonDays;
+
+    @Value("${balance.archive.batch-size:10000}")
+    private int batchSize;
+
+    @Scheduled(cron = "${balance.archive.cron:0 0 3 * * *}")
+    public void archiveOldTransactions() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime before = LocalDateTime.now().minusDays(horizonDays);
+        long moved = archiveTransactions(before);
+        log.info("archive_run before={} moved={}", before, moved);
+    }
+
+    @Override
+    public long archiveTransactions(LocalDateTime before) {
+        long total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> {
+                int count = jdbcTemplate.update(MOVE_BATCH_SQL, before, batchSize);
+                if (count > 0) {
+                    jdbcTemplate.update(ADVANCE_WATERMARK_SQL, before);
+                }
+                return count;
+            });
+            total += moved;
+        } while (moved == batchSize);
+        return total;
+    }
+}
@@ -0,0 +1,166 @@
+package org.example.balance.service.impl;
+
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.balance.dto.ImportFormat;
+import org.example.balance.exception.ImportValidationException;
+import org.example.balance.model.Account;
+import org.example.balance.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.UUID;
+
+/**
+ * Проверка и нормализация строк импорта в формат CSV для COPY ... FROM STDIN.
+ * Методы без состояния и могут вызываться из нескольких потоков.
+ */
+public final class ImportRowParser {
+
+    public static final String ACCOUNT_COLUMNS = "id,balance,created_at,currency";
+
+    public static final String TRANSACTION_COLUMNS = "id,account_id,to_account_id,type,amount,balance_after,created_at,currency,to_amount";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final int MAX_PRECISION = 19;
+
+    private static final int MAX_SCALE = 2;
+
+    private ImportRowParser() {
+    }
+
+    public static String accountRow(ImportFormat format, String line, long lineNumber) {
+        String[] fields = format == ImportFormat.CSV
+                ? splitCsv(line, 3, 4, lineNumber)
+                : readJson(line, lineNumber, "id", "balance", "createdAt", "currency");
+
+        UUID id = parseUuid(fields[0], "id", lineNumber);
+        BigDecimal balance = parseAmount(fields[1], "balance", lineNumber);
+        if (balance.signum() < 0) {
+            throw new ImportValidationException(lineNumber, "отрицательный баланс");
+        }
+        LocalDateTime createdAt = parseTimestamp(fields[2], "created_at", lineNumber);
+        String currency = parseCurrency(fields, 3, lineNumber);
+
+        return id + "," + balance.toPlainString() + "," + createdAt + "," + currency;
+    }
+
+    public static String transactionRow(ImportFormat format, String line, long lineNumber) {
+        String[] fields = format == ImportFormat.CSV
+                ? splitCsv(line, 7, 9, lineNumber)
+                : readJson(line, lineNumber, "id", "accountId", "toAccountId", "type", "amount", "balanceAfter", "createdAt",
+                "currency", "toAmount");
+
+        UUID id = parseUuid(fields[0], "id", lineNumber);
+        UUID accountId = parseUuid(fields[1], "account_id", lineNumber);
+        UUID toAccountId = fields[2].isEmpty() ? null : parseUuid(fields[2], "to_account_id", lineNumber);
+        TransactionType type = parseType(fields[3], lineNumber);
+        if (type == TransactionType.TRANSFER && toAccountId == null) {
+            throw new ImportValidationException(lineNumber, "для перевода не указан счет получателя");
+        }
+        BigDecimal amount = parseAmount(fields[4], "amount", lineNumber);
+        if (amount.signum() <= 0) {
+            throw new ImportValidationException(lineNumber, "сумма операции должна быть больше нуля");
+        }
+        BigDecimal balanceAfter = parseAmount(fields[5], "balance_after", lineNumber);
+        if (balanceAfter.signum() < 0) {
+            throw new ImportValidationException(lineNumber, "отрицательный баланс после операции");
+        }
+        LocalDateTime createdAt = parseTimestamp(fields[6], "created_at", lineNumber);
+        String currency = parseCurrency(fields, 7, lineNumber);
+        BigDecimal toAmount = fields.length > 8 && !fields[8].isEmpty()
+                ? parseAmount(fields[8], "to_amount", lineNumber)
+                : null;
+        if (toAmount != null && type != TransactionType.TRANSFER) {
+            throw new ImportValidationException(lineNumber, "to_amount допустим только для перевода");
+        }
+
+        return id + "," + accountId + "," + (toAccountId == null ? "" : toAccountId) + "," + type + ","
+                + amount.toPlainString() + "," + balanceAfter.toPlainString() + "," + createdAt + ","
+                + currency + "," + (toAmount == null ? "" : toAmount.toPlainString());
+    }
+
+    // Последние поля (валюта и сумма зачисления) необязательны для совместимости с одновалютным форматом
+    private static String[] splitCsv(String line, int minColumns, int maxColumns, long lineNumber) {
+        String[] fields = line.split(",", -1);
+        if (fields.length < minColumns || fields.length > maxColumns) {
+            throw new ImportValidationException(lineNumber,
+                    "ожидалось полей: от " + minColumns + " до " + maxColumns + ", получено: " + fields.length);
+        }
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = fields[i].trim();
+        }
+        return fields;
+    }
+
+    private static String[] readJson(String line, long lineNumber, String... names) {
+        JsonNode node;
+        try {
+            node = MAPPER.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new ImportValidationException(lineNumber, "некорректный JSON");
+        }
+        if (node == null || !node.isObject()) {
+            throw new ImportValidationException(lineNumber, "ожидался JSON-объект");
+        }
+        String[] fields = new String[names.length];
+        for (int i = 0; i < names.length; i++) {
+            JsonNode value = node.get(names[i]);
+            fields[i] = value == null || value.isNull() ? "" : value.asText().trim();
+        }
+        return fields;
+    }
+
+    private static UUID parseUuid(String value, String field, long lineNumber) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw new ImportValidationException(lineNumber, "некорректный " + field + ": " + value);
+        }
+    }
+
+    private static BigDecimal parseAmount(String value, String field, long lineNumber) {
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new ImportValidationException(lineNumber, "некорректный " + field + ": " + value);
+        }
+        if (amount.scale() > MAX_SCALE || amount.precision() - amount.scale() > MAX_PRECISION - MAX_SCALE) {
+            throw new ImportValidationException(lineNumber, field + " не помещается в DECIMAL(19,2): " + value);
+        }
+        return amount;
+    }
+
+    private static String parseCurrency(String[] fields, int index, long lineNumber) {
+        if (fields.length <= index || fields[index].isEmpty()) {
+            return Account.DEFAULT_CURRENCY;
+        }
+        String currency = fields[index];
+        if (currency.length() != 3 || !currency.chars().allMatch(c -> c >= 'A' && c <= 'Z')) {
+            throw new ImportValidationException(lineNumber, "некорректный код валюты: " + currency);
+        }
+        return currency;
+    }
+
+    private static TransactionType parseType(String value, long lineNumber) {
+        try {
+            return TransactionType.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw new ImportValidationException(lineNumber, "неизвестный тип операции: " + value);
+        }
+    }
+
+    private static LocalDateTime parseTimestamp(String value, String field, long lineNumber) {
+        try {
+            // COPY ... TO отдает время через пробел, JSON — через 'T'
+            return LocalDateTime.parse(value.replace(' ', 'T'));
+        } catch (DateTimeParseException e) {
+            throw new ImportValidationException(lineNumber, "некорректный " + field + ": " + value);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package org.example.balance.service.impl;
+
+
+import lombok.RequiredArgsConstructor;
+import org.example.balance.dto.ImportFormat;
+import org.example.balance.dto.ImportResponse;
+import org.example.balance.exception.ImportValidationException;
+import org.example.balance.service.ImportService;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.IntStream;
+
+
+@Service
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class ImportServiceImpl implements ImportService {
+
+    private static final String ACCOUNTS = "accounts";
+
+    private static final String TRANSACTIONS = "transactions";
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${balance.import.chunk-size:50000}")
+    private int chunkSize;
+
+    @Override
+    public ImportResponse importAccounts(String importId, ImportFormat format, InputStream in) throws IOException {
+        return importRows(importId, ACCOUNTS, ImportRowParser.ACCOUNT_COLUMNS, format, in, ImportRowParser::accountRow);
+    }
+
+    @Override
+    public ImportResponse importTransactions(String importId, ImportFormat format, InputStream in) throws IOException {
+        return importRows(importId, TRANSACTIONS, ImportRowParser.TRANSACTION_COLUMNS, format, in, ImportRowParser::transactionRow);
+    }
+
+    @Override
+    public List<UUID> findLedgerMismatches(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit должен быть положительным: " + limit);
+        }
+        // Переводы хранят balance_after только отправителя, поэтому баланс проигрывается по журналу:
+        // от balance_after первой собственной операции счета прибавляются последующие пополнения,
+        // вычитаются списания и исходящие переводы, прибавляются входящие переводы (to_amount для
+        // переводов между валютами). Исходящие и входящие строки упорядочены одинаково, по (created_at, id).
+        // Счета без собственных операций начальный баланс не восстанавливают и не проверяются.
+        return jdbcTemplate.queryForList("""
+                WITH ledger AS (
+                    SELECT id, account_id, to_account_id, type, amount, balance_after, to_amount, created_at
+                    FROM transactions
+                    UNION ALL
+                    SELECT id, account_id, to_account_id, type, amount, balance_after, to_amount, created_at
+                    FROM transactions_archive
+                ),
+                anchor AS (
+                    SELECT DISTINCT ON (account_id) account_id, id, balance_after, created_at
+                    FROM ledger
+                    ORDER BY account_id, created_at, id
+                ),
+                movement AS (
+                    SELECT l.account_id,
+                           CASE WHEN l.type = 'DEPOSIT' THEN l.amount ELSE -l.amount END AS delta
+                    FROM ledger l
+                    JOIN anchor f ON f.account_id = l.account_id
+                    WHERE (l.created_at, l.id) > (f.created_at, f.id)
+                    UNION ALL
+                    SELECT l.to_account_id, COALESCE(l.to_amount, l.amount)
+                    FROM ledger l
+                    JOIN anchor f ON f.account_id = l.to_account_id
+                    WHERE l.type = 'TRANSFER' AND (l.created_at, l.id) > (f.created_at, f.id)
+                )
+                SELECT a.id FROM accounts a
+                JOIN anchor f ON f.account_id = a.id
+                LEFT JOIN (SELECT account_id, SUM(delta) AS delta FROM movement GROUP BY account_id) m
+                       ON m.account_id = a.id
+                WHERE a.balance <> f.balance_after + COALESCE(m.delta, 0)
+                LIMIT ?""", UUID.class, limit);
+    }
+
+    /**
+     * Читает вход порциями по chunkSize строк. Пока порция загружается через COPY, следующая
+     * параллельно проверяется. Каждая порция фиксируется в отдельной транзакции вместе с
+     * контрольной точкой, поэтому повторный запуск с тем же importId продолжает с места остановки.
+     */
+    private ImportResponse importRows(String importId, String target, String columns, ImportFormat format,
+                                      InputStream in, RowParser parser) throws IOException {
+
+        long rowsDone = loadCheckpoint(importId, target);
+        String copySql = "COPY " + target + " (" + columns + ") FROM STDIN WITH (FORMAT csv)";
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+        long lineNumber = 1;
+        if (format == ImportFormat.CSV && reader.readLine() != null) {
+            lineNumber++;
+        }
+        long skipped = 0;
+        while (skipped < rowsDone && reader.readLine() != null) {
+            skipped++;
+            lineNumber++;
+        }
+
+        long imported = 0;
+        Chunk chunk = readChunk(reader, lineNumber);
+        CompletableFuture<ValidatedChunk> validated = validateAsync(chunk, format, parser);
+        while (!chunk.lines().isEmpty()) {
+            Chunk next = readChunk(reader, chunk.firstLine() + chunk.lines().size());
+            CompletableFuture<ValidatedChunk> nextValidated = validateAsync(next, format, parser);
+
+            ValidatedChunk rows = join(validated);
+            rowsDone += chunk.lines().size();
+            copyChunk(importId, target, copySql, rows, rowsDone);
+            imported += rows.count();
+
+            chunk = next;
+            validated = nextValidated;
+        }
+
+        return new ImportResponse(importId, imported, skipped);
+    }
+
+    private Chunk readChunk(BufferedReader reader, long firstLine) throws IOException {
+        List<String> lines = new ArrayList<>(chunkSize);
+        String line;
+        while (lines.size() < chunkSize && (line = reader.readLine()) != null) {
+            lines.add(line);
+        }
+        return new Chunk(firstLine, lines);
+    }
+
+    private CompletableFuture<ValidatedChunk> validateAsync(Chunk chunk, ImportFormat format, RowParser parser) {
+        return CompletableFuture.supplyAsync(() -> {
+            List<String> rows = IntStream.range(0, chunk.lines().size())
+                    .parallel()
+                    .mapToObj(i -> {
+                        String line = chunk.lines().get(i);
+                        return line.isBlank() ? null : parser.parse(format, line, chunk.firstLine() + i);
+                    })
+                    .filter(Objects::nonNull)
+                    .toList();
+            return new ValidatedChunk(rows.isEmpty() ? "" : String.join("\n", rows) + "\n", rows.size());
+        });
+    }
+
+    private static ValidatedChunk join(CompletableFuture<ValidatedChunk> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void copyChunk(String importId, String target, String copySql, ValidatedChunk rows, long rowsDone) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (rows.count() > 0) {
+                jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+                    try {
+                        return connection.unwrap(PGConnection.class).getCopyAPI()
+                                .copyIn(copySql, new StringReader(rows.csv()));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            jdbcTemplate.update("""
+                    INSERT INTO import_checkpoints (import_id, target, rows_done, updated_at)
+                    VALUES (?, ?, ?, now())
+                    ON CONFLICT (import_id) DO UPDATE
+                    SET rows_done = EXCLUDED.rows_done, updated_at = EXCLUDED.updated_at""",
+                    importId, target, rowsDone);
+        });
+    }
+
+    private long loadCheckpoint(String importId, String target) {
+        try {
+            return jdbcTemplate.queryForObject(
+                    "SELECT target, rows_done FROM import_checkpoints WHERE import_id = ?",
+                    (rs, rowNum) -> {
+                        if (!target.equals(rs.getString("target"))) {
+                            throw new ImportValidationException("Импорт " + importId
+                                    + " уже использовался для таблицы " + rs.getString("target"));
+                        }
+                        return rs.getLong("rows_done");
+                    },
+                    importId);
+        } catch (EmptyResultDataAccessException e) {
+            return 0;
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowParser {
+        String parse(ImportFormat format, String line, long lineNumber);
+    }
+
+    private record Chunk(long firstLine, List<String> lines) {
+    }
+
+    private record ValidatedChunk(String csv, int count) {
+    }
+}
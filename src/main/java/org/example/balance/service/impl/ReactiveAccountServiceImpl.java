@@ -0,0 +1,157 @@
+package org.example.balance.service.impl;
+
+
+
+import lombok.RequiredArgsConstructor;
+import org.example.balance.exception.AccountNotFoundException;
+import org.example.balance.exception.InsufficientFundsException;
+import org.example.balance.fx.ExchangeRates;
+import org.example.balance.model.Account;
+import org.example.balance.model.Transaction;
+import org.example.balance.model.TransactionType;
+import org.example.balance.repository.ReactiveAccountRepository;
+import org.example.balance.repository.ReactiveTransactionRepository;
+import org.example.balance.service.ReactiveAccountService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveAccountServiceImpl implements ReactiveAccountService {
+
+    private final ReactiveAccountRepository accountRepository;
+
+    private final ReactiveTransactionRepository transactionRepository;
+
+    private final TransactionalOperator transactionalOperator;
+
+    private final ExchangeRates exchangeRates;
+
+    @Override
+    public Mono<Void> accountReplenishment(UUID accountId, BigDecimal amount) {
+        return lockAccount(accountId)
+                .flatMap(account -> {
+                    account.setBalance(account.getBalance().add(amount));
+                    return accountRepository.updateBalance(account)
+                            .then(createTransaction(account, amount, TransactionType.DEPOSIT));
+                })
+                .as(transactionalOperator::transactional);
+    }
+
+
+    private Mono<Void> createTransaction(Account account, BigDecimal amount, TransactionType type) {
+        Transaction transaction = Transaction.builder()
+                .id(UUID.randomUUID())
+                .accountId(account.getId())
+                .type(type)
+                .amount(amount)
+                .balanceAfter(account.getBalance())
+                .currency(account.getCurrency())
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        return transactionRepository.save(transaction);
+    }
+
+    private Mono<Void> creatTransferTransaction(Account from, Account to, BigDecimal amount, BigDecimal toAmount) {
+        Transaction transaction = Transaction.builder()
+                .id(UUID.randomUUID())
+                .accountId(from.getId())
+                .toAccountId(to.getId())
+                .type(TransactionType.TRANSFER)
+                .amount(amount)
+                .balanceAfter(from.getBalance())
+                .currency(from.getCurrency())
+                .toAmount(toAmount)
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        return transactionRepository.save(transaction);
+    }
+
+    private Mono<Account> lockAccount(UUID accountId) {
+        return accountRepository.findByIdForUpdate(accountId)
+                .switchIfEmpty(Mono.error(() -> new AccountNotFoundException(accountId)));
+    }
+
+    @Override
+    public Mono<Void> accountWithdrew(UUID accountId, BigDecimal amount) {
+        return lockAccount(accountId)
+                .flatMap(account -> {
+                    if (account.getBalance().compareTo(amount) < 0) {
+                        return Mono.error(new InsufficientFundsException(accountId));
+                    }
+                    account.setBalance(account.getBalance().subtract(amount));
+                    return accountRepository.updateBalance(account)
+                            .then(createTransaction(account, amount, TransactionType.WITHDRAWAL));
+                })
+                .as(transactionalOperator::transactional);
+    }
+
+    @Override
+    public Mono<Void> transferFromAccountToAccount(UUID fromId, UUID toId, BigDecimal amount) {
+
+
+        UUID firstLock = fromId.compareTo(toId) < 0 ? fromId : toId;
+        UUID secondLock = fromId.compareTo(toId) < 0 ? toId : fromId;
+
+        // Блокировки берутся строго последовательно в порядке идентификаторов, как в AccountServiceImpl
+        return lockAccount(firstLock)
+                .flatMap(firstAccount -> lockAccount(secondLock)
+                        .flatMap(secondAccount -> {
+                            Account from = firstAccount.getId().equals(fromId) ? firstAccount : secondAccount;
+                            Account to = firstAccount.getId().equals(fromId) ? secondAccount : firstAccount;
+
+                            if (from.getBalance().compareTo(amount) < 0) {
+                                return Mono.error(new InsufficientFundsException(fromId));
+                            }
+
+                            boolean sameCurrency = Objects.equals(from.getCurrency(), to.getCurrency());
+                            BigDecimal credited = sameCurrency
+                                    ? amount
+                                    : exchangeRates.convert(amount, from.getCurrency(), to.getCurrency());
+
+                            from.setBalance(from.getBalance().subtract(amount));
+                            to.setBalance(to.getBalance().add(credited));
+
+                            return accountRepository.updateBalance(from)
+                                    .then(accountRepository.updateBalance(to))
+                                    .then(creatTransferTransaction(from, to, amount, sameCurrency ? null : credited));
+                        }))
+                .as(transactionalOperator::transactional);
+    }
+
+    @Override
+    public Mono<BigDecimal> getBalance(UUID accountId) {
+        return accountRepository.findById(accountId)
+                .switchIfEmpty(Mono.error(() -> new AccountNotFoundException(accountId)))
+                .map(Account::getBalance);
+    }
+
+    @Override
+    public Mono<BigDecimal> getBalance(UUID accountId, String currency) {
+        return accountRepository.findById(accountId)
+                .switchIfEmpty(Mono.error(() -> new AccountNotFoundException(accountId)))
+                .map(account -> Objects.equals(account.getCurrency(), currency)
+                        ? account.getBalance()
+                        : exchangeRates.convert(account.getBalance(), account.getCurrency(), currency));
+    }
+
+    @Override
+    public Flux<Transaction> getStatement(UUID accountId, LocalDateTime from, LocalDateTime to) {
+        return accountRepository.existsById(accountId)
+                .flatMapMany(exists -> exists
+                        ? transactionRepository.findWithArchiveByAccountIdAndCreatedAtBetween(accountId, from, to)
+                        : Flux.error(new AccountNotFoundException(accountId)));
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.balance.service.impl;
+
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.example.balance.exception.AccountNotFoundException;
+import org.example.balance.model.Transaction;
+import org.example.balance.repository.AccountRepository;
+import org.example.balance.repository.TransactionRepository;
+import org.example.balance.service.StatementExportService;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+
+@Service
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class StatementExportServiceImpl implements StatementExportService {
+
+    public static final String CSV_HEADER = "id,account_id,to_account_id,type,amount,balance_after,created_at,currency,to_amount";
+
+    private static final DateTimeFormatter FILE_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final AccountRepository accountRepository;
+
+    private final TransactionRepository transactionRepository;
+
+    private final EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${balance.export.directory:${java.io.tmpdir}}")
+    private String exportDirectory;
+
+    @Override
+    public void checkAccountExists(UUID accountId) {
+        if (!accountRepository.existsById(accountId)) {
+            throw new AccountNotFoundException(accountId);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void writeStatementCsv(UUID accountId, LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException {
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        StringBuilder line = new StringBuilder(160);
+
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        try (Stream<Transaction> transactions =
+                     transactionRepository.streamWithArchiveByAccountIdAndCreatedAtBetween(accountId, from, to)) {
+            for (Transaction transaction : (Iterable<Transaction>) transactions::iterator) {
+                line.setLength(0);
+                appendCsvLine(line, transaction);
+                writer.append(line);
+                // Не держим выгруженные строки в контексте персистентности
+                entityManager.detach(transaction);
+            }
+        }
+        writer.flush();
+    }
+
+    @Override
+    public Path exportAllStatements(LocalDateTime from, LocalDateTime to) throws IOException {
+
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Дата начала периода позже даты окончания");
+        }
+
+        Path directory = Files.createDirectories(Path.of(exportDirectory));
+        Path file = directory.resolve("statements_" + FILE_NAME_FORMAT.format(from)
+                + "_" + FILE_NAME_FORMAT.format(to) + ".csv.gz");
+
+        // COPY не поддерживает параметры, поэтому границы периода подставляются в ISO-формате LocalDateTime
+        String period = "created_at BETWEEN '" + from + "' AND '" + to + "'";
+        // Архивная часть выполняется, только если период начинается раньше границы архива (в том же снимке)
+        String sql = "COPY (SELECT id, account_id, to_account_id, type, amount, balance_after, created_at, currency, to_amount "
+                + "FROM transactions WHERE " + period + " "
+                + "UNION ALL SELECT id, account_id, to_account_id, type, amount, balance_after, created_at, currency, to_amount "
+                + "FROM transactions_archive WHERE " + period + " "
+                + "AND EXISTS (SELECT 1 FROM archive_watermark WHERE archived_before > '" + from + "') "
+                + "ORDER BY account_id, created_at) TO STDOUT WITH (FORMAT csv, HEADER)";
+
+        try (OutputStream out = new GZIPOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE), BUFFER_SIZE)) {
+            jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+                try {
+                    return connection.unwrap(PGConnection.class).getCopyAPI().copyOut(sql, out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        return file;
+    }
+
+    private static void appendCsvLine(StringBuilder line, Transaction transaction) {
+        line.append(transaction.getId()).append(',')
+                .append(transaction.getAccountId()).append(',');
+        if (transaction.getToAccountId() != null) {
+            line.append(transaction.getToAccountId());
+        }
+        line.append(',')
+                .append(transaction.getType()).append(',')
+                .append(transaction.getAmount().toPlainString()).append(',')
+                .append(transaction.getBalanceAfter().toPlainString()).append(',')
+                .append(transaction.getCreatedAt()).append(',')
+                .append(transaction.getCurrency()).append(',');
+        if (transaction.getToAmount() != null) {
+            line.append(transaction.getToAmount().toPlainString());
+        }
+        line.append('\n');
+    }
+}
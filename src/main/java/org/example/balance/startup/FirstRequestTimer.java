@@ -0,0 +1,51 @@
+package org.example.balance.startup;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Замер старта: время от запуска JVM до готовности приложения и до ответа на первый запрос.
+ * Запросы к /actuator (liveness и readiness пробы) первым запросом не считаются.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class FirstRequestTimer extends OncePerRequestFilter {
+
+    private static final String ACTUATOR_PATH = "/actuator/";
+
+    private final AtomicBoolean firstRequest = new AtomicBoolean(true);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        log.info("startup ready_ms={}", sinceJvmStart());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        filterChain.doFilter(request, response);
+        if (request.getRequestURI().startsWith(ACTUATOR_PATH)) {
+            return;
+        }
+        if (firstRequest.get() && firstRequest.compareAndSet(true, false)) {
+            log.info("startup first_request_ms={} uri={}", sinceJvmStart(), request.getRequestURI());
+        }
+    }
+
+    private static long sinceJvmStart() {
+        return System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+    }
+}
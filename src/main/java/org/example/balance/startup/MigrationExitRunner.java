@@ -0,0 +1,28 @@
+package org.example.balance.startup;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * В профиле migrate Liquibase уже отработал при создании контекста, остается только завершить процесс.
+ */
+@Slf4j
+@Component
+@Profile("migrate")
+@RequiredArgsConstructor
+public class MigrationExitRunner implements ApplicationRunner {
+
+    private final ApplicationContext applicationContext;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Миграция схемы завершена");
+        System.exit(SpringApplication.exit(applicationContext));
+    }
+}
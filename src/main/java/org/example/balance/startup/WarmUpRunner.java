@@ -0,0 +1,143 @@
+package org.example.balance.startup;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.balance.model.Account;
+import org.example.balance.repository.AccountRepository;
+import org.example.balance.service.AccountService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Прогрев перед приемом трафика: прогоняет SQL-формы сервиса на соединениях пула, чтобы заполнить
+ * кэши prepared statements и планов Hibernate и дать JIT скомпилировать горячий путь.
+ * Серверные prepared statements живут в соединении, поэтому по умолчанию потоков столько же, сколько соединений в пуле.
+ * <p>
+ * ApplicationRunner выполняется до ApplicationReadyEvent, поэтому readiness-проба переходит
+ * в ACCEPTING_TRAFFIC только после прогрева. Основные итерации читают существующие счета, а запрос
+ * блокировки выполняют по несуществующему идентификатору, чтобы не ждать и не задерживать операции других подов. Операции записи прогоняются на временных счетах
+ * только write-iterations раз на поток: откатанные вставки оставляют мертвые строки в accounts и transactions.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class WarmUpRunner implements ApplicationRunner {
+
+    private final AccountService accountService;
+
+    private final AccountRepository accountRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final EntityManager entityManager;
+
+    private final DataSource dataSource;
+
+    @Value("${balance.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${balance.warmup.iterations:200}")
+    private int iterations;
+
+    @Value("${balance.warmup.write-iterations:1}")
+    private int writeIterations;
+
+    // 0 — по размеру пула соединений
+    @Value("${balance.warmup.threads:0}")
+    private int threads;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        int threadCount = threads > 0 ? threads : poolSize();
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<UUID> accountIds = entityManager.createQuery("SELECT a.id FROM Account a", UUID.class)
+                    .setMaxResults(2)
+                    .getResultList();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < writeIterations; j++) {
+                        warmUpWrites();
+                    }
+                    if (!accountIds.isEmpty()) {
+                        for (int j = 0; j < iterations; j++) {
+                            warmUpReads(accountIds.get(j % accountIds.size()));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            log.info("warmup_done threads={} iterations={} write_iterations={} elapsed_ms={}",
+                    threadCount, iterations, writeIterations, (System.nanoTime() - started) / 1_000_000);
+        } catch (Exception e) {
+            // Прогрев не должен мешать старту: без него сервис работает, просто медленнее на первых запросах
+            log.warn("Прогрев завершился с ошибкой", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int poolSize() {
+        return dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+    }
+
+    private void warmUpReads(UUID accountId) {
+        LocalDateTime now = LocalDateTime.now();
+        // Тот же SELECT ... FOR UPDATE по несуществующему счету: запрос готовится, но строки клиентов не блокируются
+        transactionTemplate.executeWithoutResult(status -> {
+            accountRepository.findByIdForUpdate(UUID.randomUUID());
+            status.setRollbackOnly();
+        });
+        accountRepository.findById(accountId);
+        accountService.getBalance(accountId);
+        accountService.getStatement(accountId, now.minusDays(1), now);
+    }
+
+    private void warmUpWrites() {
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            Account first = accountRepository.save(
+                    Account.builder().id(UUID.randomUUID()).balance(BigDecimal.TEN).createdAt(now).build());
+            Account second = accountRepository.save(
+                    Account.builder().id(UUID.randomUUID()).balance(BigDecimal.TEN).createdAt(now).build());
+            entityManager.flush();
+            // Счета читаются из БД, а не из контекста персистентности, как в обычном запросе
+            entityManager.clear();
+
+            accountService.accountReplenishment(first.getId(), BigDecimal.ONE);
+            accountService.accountWithdrew(first.getId(), BigDecimal.ONE);
+            accountService.transferFromAccountToAccount(first.getId(), second.getId(), BigDecimal.ONE);
+            entityManager.flush();
+            entityManager.clear();
+
+            accountService.getBalance(first.getId());
+            accountService.getStatement(first.getId(), now.minusDays(1), now.plusDays(1));
+
+            status.setRollbackOnly();
+        });
+    }
+}
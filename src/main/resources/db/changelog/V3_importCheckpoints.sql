@@ -0,0 +1,10 @@
+--liquibase formatted sql
+--changeset dima.peregorodiev:create_import_checkpoints
+
+-- Контрольные точки массового импорта: сколько строк входного файла уже загружено
+CREATE TABLE import_checkpoints (
+                                    import_id VARCHAR(100) PRIMARY KEY,
+                                    target VARCHAR(50) NOT NULL,
+                                    rows_done BIGINT NOT NULL,
+                                    updated_at TIMESTAMP NOT NULL
+);
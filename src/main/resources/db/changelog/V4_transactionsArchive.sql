@@ -0,0 +1,15 @@
+--liquibase formatted sql
+--changeset dima.peregorodiev:create_transactions_archive
+
+-- Холодная таблица для операций старше горизонта архивации, только вставка
+CREATE TABLE transactions_archive (
+                                      id UUID PRIMARY KEY,
+                                      account_id UUID NOT NULL,
+                                      to_account_id UUID,
+                                      type VARCHAR(50) NOT NULL,
+                                      amount DECIMAL(19,2) NOT NULL,
+                                      balance_after DECIMAL(19,2) NOT NULL,
+                                      created_at TIMESTAMP NOT NULL
+) WITH (fillfactor = 100);
+
+CREATE INDEX idx_transactions_archive_account_id_created_at ON transactions_archive(account_id, created_at);
@@ -0,0 +1,14 @@
+--liquibase formatted sql
+--changeset dima.peregorodiev:multi_currency
+
+-- Валюта счета и операции (ISO 4217), существующие данные считаются рублевыми
+ALTER TABLE accounts ADD COLUMN currency VARCHAR(3) NOT NULL DEFAULT 'RUB';
+-- Версия строки счета для оптимистической блокировки, увеличивается при каждом изменении баланса
+ALTER TABLE accounts ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- Для перевода между валютами to_amount — сумма зачисления в валюте счета получателя
+ALTER TABLE transactions ADD COLUMN currency VARCHAR(3) NOT NULL DEFAULT 'RUB';
+ALTER TABLE transactions ADD COLUMN to_amount DECIMAL(19,2);
+
+ALTER TABLE transactions_archive ADD COLUMN currency VARCHAR(3) NOT NULL DEFAULT 'RUB';
+ALTER TABLE transactions_archive ADD COLUMN to_amount DECIMAL(19,2);
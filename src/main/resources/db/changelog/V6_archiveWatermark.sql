@@ -0,0 +1,13 @@
+--liquibase formatted sql
+--changeset dima.peregorodiev:create_archive_watermark
+
+-- Граница архива: все строки transactions_archive имеют created_at < archived_before.
+-- Одна строка с id = 1, обновляется в той же транзакции, что и перенос порции
+CREATE TABLE archive_watermark (
+                                   id SMALLINT PRIMARY KEY,
+                                   archived_before TIMESTAMP NOT NULL
+);
+
+INSERT INTO archive_watermark (id, archived_before)
+SELECT 1, max(created_at) + INTERVAL '1 microsecond' FROM transactions_archive
+HAVING count(*) > 0;
@@ -1,13 +1,18 @@
 package org.example.balance.controller;
 
 
+import jakarta.servlet.ServletException;
+import org.example.balance.exception.AccountNotFoundException;
 import org.example.balance.model.Transaction;
 import org.example.balance.service.AccountService;
+import org.example.balance.service.StatementExportService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -17,8 +22,10 @@ import java.util.Collections;
 import java.util.UUID;
 
 
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -31,6 +38,9 @@ public class AccountControllerIntegrationTest {
     @MockBean
     private AccountService accountService;
 
+    @MockBean
+    private StatementExportService statementExportService;
+
     private UUID accountId;
 
 
@@ -103,6 +113,54 @@ public class AccountControllerIntegrationTest {
         verify(accountService).getStatement(accountId, from, to);
     }
 
+    @Test
+    void testGetStatementAsCbor() throws Exception {
+        LocalDateTime from = LocalDateTime.now().minusDays(1);
+        LocalDateTime to = LocalDateTime.now();
+
+        when(accountService.getStatement(accountId, from, to))
+                .thenReturn(Collections.singletonList(new Transaction()));
+
+        mockMvc.perform(get("/api/v1/accounts/{id}/statement", accountId)
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .accept(MediaType.APPLICATION_CBOR))
+                        .andExpect(status().isOk())
+                        .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+    }
+
+    @Test
+    void testExportStatementCsvGzip() throws Exception {
+        LocalDateTime from = LocalDateTime.now().minusDays(1);
+        LocalDateTime to = LocalDateTime.now();
+
+        mockMvc.perform(get("/api/v1/accounts/{id}/statement/csv", accountId)
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                        .andExpect(content().contentTypeCompatibleWith("text/csv"));
+
+        InOrder inOrder = inOrder(statementExportService);
+        inOrder.verify(statementExportService).checkAccountExists(accountId);
+        inOrder.verify(statementExportService).writeStatementCsv(eq(accountId), eq(from), eq(to), any());
+    }
+
+    @Test
+    void testExportStatementCsvAccountNotFound() throws Exception {
+        LocalDateTime from = LocalDateTime.now().minusDays(1);
+        LocalDateTime to = LocalDateTime.now();
+        doThrow(new AccountNotFoundException(accountId)).when(statementExportService).checkAccountExists(accountId);
+
+        assertThrows(ServletException.class, () -> mockMvc.perform(get("/api/v1/accounts/{id}/statement/csv", accountId)
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")));
+
+        verify(statementExportService, never()).writeStatementCsv(any(), any(), any(), any());
+    }
+
 
     @Test
     void testAccountReplenishmentWithInvalidAmount() throws Exception {
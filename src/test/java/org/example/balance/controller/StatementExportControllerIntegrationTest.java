@@ -0,0 +1,38 @@
+package org.example.balance.controller;
+
+
+import org.example.balance.service.StatementExportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(StatementExportController.class)
+public class StatementExportControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private StatementExportService statementExportService;
+
+    @Test
+    void testExportAllStatementsWithInvertedPeriod() throws Exception {
+        LocalDateTime from = LocalDateTime.now();
+        LocalDateTime to = from.minusDays(1);
+        when(statementExportService.exportAllStatements(from, to))
+                .thenThrow(new IllegalArgumentException("Дата начала периода позже даты окончания"));
+
+        mockMvc.perform(post("/api/v1/admin/statements/export")
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                        .andExpect(status().isBadRequest());
+    }
+}
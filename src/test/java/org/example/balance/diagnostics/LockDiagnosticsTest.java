@@ -0,0 +1,240 @@
+package org.example.balance.diagnostics;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class LockDiagnosticsTest {
+
+    private static final String APPLICATION_NAME = "balance";
+    private static final UUID HOT_ACCOUNT_ID = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+    private static final UUID OTHER_ACCOUNT_ID = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+    private static final String WAIT_START = "2025-02-13 10:00:00.000001";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private LockDiagnostics lockDiagnostics;
+
+    private ListAppender<ILoggingEvent> logAppender;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(lockDiagnostics, "enabled", true);
+        ReflectionTestUtils.setField(lockDiagnostics, "thresholdMillis", 200L);
+        ReflectionTestUtils.setField(lockDiagnostics, "maxAccounts", 10000);
+        ReflectionTestUtils.setField(lockDiagnostics, "applicationName", APPLICATION_NAME);
+
+        logAppender = new ListAppender<>();
+        logAppender.start();
+        ((Logger) LoggerFactory.getLogger(LockDiagnostics.class)).addAppender(logAppender);
+
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ((Logger) LoggerFactory.getLogger(LockDiagnostics.class)).detachAppender(logAppender);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // сессия учитывается, пока транзакция не завершилась
+    @Test
+    void register_ShouldTrackSession_UntilTransactionCompletes() throws Exception {
+
+        backendPids(101);
+        lockDiagnostics.register("deposit", HOT_ACCOUNT_ID);
+
+        waitingSessions(new WaitRow(101, 50, WAIT_START, ""));
+        lockDiagnostics.sample();
+        assertEquals(1, lockDiagnostics.topAccounts(10).get(0).getWaitSamples());
+
+        completeTransaction();
+        lockDiagnostics.sample();
+
+        assertEquals(1, lockDiagnostics.topAccounts(10).get(0).getWaitSamples());
+    }
+
+    // вне транзакции регистрация не выполняется
+    @Test
+    void register_ShouldSkip_WhenNoTransaction() {
+
+        TransactionSynchronizationManager.clearSynchronization();
+
+        lockDiagnostics.register("deposit", HOT_ACCOUNT_ID);
+
+        verify(jdbcTemplate, never()).execute(any(ConnectionCallback.class));
+    }
+
+    // одно ожидание логируется один раз, новое ожидание той же сессии — снова
+    @Test
+    void sample_ShouldLogWaitOnce_WhenSameWaitSampledTwice() throws Exception {
+
+        backendPids(101);
+        lockDiagnostics.register("withdraw", HOT_ACCOUNT_ID);
+
+        waitingSessions(new WaitRow(101, 500, WAIT_START, "102"));
+        lockDiagnostics.sample();
+        lockDiagnostics.sample();
+        assertEquals(1, lockWaitLogs());
+
+        waitingSessions(new WaitRow(101, 300, "2025-02-13 10:00:05.000001", "102"));
+        lockDiagnostics.sample();
+        assertEquals(2, lockWaitLogs());
+    }
+
+    // ожидание короче порога не логируется, но учитывается в статистике
+    @Test
+    void sample_ShouldNotLog_WhenWaitBelowThreshold() throws Exception {
+
+        backendPids(101);
+        lockDiagnostics.register("withdraw", HOT_ACCOUNT_ID);
+
+        waitingSessions(new WaitRow(101, 100, WAIT_START, ""));
+        lockDiagnostics.sample();
+
+        assertEquals(0, lockWaitLogs());
+        assertEquals(1, lockDiagnostics.topAccounts(10).size());
+    }
+
+    // ожидание в переводе относится только к счету, строку которого ждут
+    @Test
+    void sample_ShouldChargeLockedAccount_WhenTransferWaits() throws Exception {
+
+        backendPids(101, 101);
+        lockDiagnostics.register("transfer", OTHER_ACCOUNT_ID);
+        lockDiagnostics.register("transfer", HOT_ACCOUNT_ID);
+
+        waitingSessions(new WaitRow(101, 500, WAIT_START, ""));
+        lockDiagnostics.sample();
+
+        assertEquals(List.of(HOT_ACCOUNT_ID), lockDiagnostics.topAccounts(10).stream().map(AccountLockStats::getAccountId).toList());
+        assertTrue(logAppender.list.get(0).getFormattedMessage().contains("waiting_on=" + HOT_ACCOUNT_ID));
+    }
+
+    // топ счетов по числу ожиданий и сброс статистики
+    @Test
+    void topAccounts_ShouldOrderByWaitSamples() throws Exception {
+
+        backendPids(101, 101, 102, 103);
+        lockDiagnostics.register("transfer", OTHER_ACCOUNT_ID);
+        lockDiagnostics.register("transfer", HOT_ACCOUNT_ID);
+        lockDiagnostics.register("deposit", HOT_ACCOUNT_ID);
+        lockDiagnostics.register("withdraw", OTHER_ACCOUNT_ID);
+
+        waitingSessions(new WaitRow(101, 50, WAIT_START, ""), new WaitRow(102, 50, WAIT_START, "101"),
+                new WaitRow(103, 50, WAIT_START, "101"));
+        lockDiagnostics.sample();
+
+        List<AccountLockStats> top = lockDiagnostics.topAccounts(10);
+        assertEquals(List.of(HOT_ACCOUNT_ID, OTHER_ACCOUNT_ID), top.stream().map(AccountLockStats::getAccountId).toList());
+        assertEquals(2, top.get(0).getWaitSamples());
+        assertEquals(1, top.get(0).getSamplesByOperation().get("deposit"));
+        assertEquals(List.of(HOT_ACCOUNT_ID), lockDiagnostics.topAccounts(1).stream().map(AccountLockStats::getAccountId).toList());
+
+        lockDiagnostics.reset();
+
+        assertTrue(lockDiagnostics.topAccounts(10).isEmpty());
+    }
+
+    // сверх max-accounts новые счета не учитываются, уже учтенные продолжают накапливать статистику
+    @Test
+    void sample_ShouldNotGrowStats_WhenMaxAccountsReached() throws Exception {
+
+        ReflectionTestUtils.setField(lockDiagnostics, "maxAccounts", 1);
+        backendPids(101, 102);
+        lockDiagnostics.register("deposit", HOT_ACCOUNT_ID);
+        lockDiagnostics.register("deposit", OTHER_ACCOUNT_ID);
+
+        waitingSessions(new WaitRow(101, 50, WAIT_START, ""));
+        lockDiagnostics.sample();
+        waitingSessions(new WaitRow(101, 50, WAIT_START, ""), new WaitRow(102, 50, WAIT_START, "101"));
+        lockDiagnostics.sample();
+
+        List<AccountLockStats> top = lockDiagnostics.topAccounts(10);
+        assertEquals(List.of(HOT_ACCOUNT_ID), top.stream().map(AccountLockStats::getAccountId).toList());
+        assertEquals(2, top.get(0).getWaitSamples());
+    }
+
+    // отрицательный limit в эндпоинте
+    @Test
+    void hotAccounts_ShouldThrow_WhenLimitNegative() {
+
+        HotAccountsEndpoint endpoint = new HotAccountsEndpoint(lockDiagnostics);
+
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.hotAccounts(-1));
+    }
+
+    private void backendPids(Integer first, Integer... rest) {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(first, (Object[]) rest);
+    }
+
+    private void waitingSessions(WaitRow... rows) throws Exception {
+        List<ResultSet> resultSets = new ArrayList<>();
+        for (WaitRow row : rows) {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getInt("pid")).thenReturn(row.pid());
+            when(rs.getLong("wait_ms")).thenReturn(row.waitMillis());
+            when(rs.getObject("wait_start")).thenReturn(row.waitStart());
+            when(rs.getString("blocking_pids")).thenReturn(row.blockingPids());
+            resultSets.add(rs);
+        }
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (ResultSet rs : resultSets) {
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(APPLICATION_NAME));
+    }
+
+    private static void completeTransaction() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    private long lockWaitLogs() {
+        return logAppender.list.stream()
+                .filter(event -> event.getFormattedMessage().startsWith("lock_wait"))
+                .count();
+    }
+
+    private record WaitRow(int pid, long waitMillis, String waitStart, String blockingPids) {
+    }
+}
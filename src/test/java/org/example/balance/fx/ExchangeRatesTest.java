@@ -0,0 +1,57 @@
+package org.example.balance.fx;
+
+import org.example.balance.exception.ExchangeRateNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ExchangeRatesTest {
+
+    private ExchangeRates exchangeRates;
+
+    @BeforeEach
+    void setUp() {
+        exchangeRates = new ExchangeRates();
+        ReflectionTestUtils.setField(exchangeRates, "baseCurrency", "RUB");
+        exchangeRates.init();
+        exchangeRates.update(Map.of("USD", new BigDecimal("92.50"), "EUR", new BigDecimal("100.00")));
+    }
+
+    // конвертация в базовую валюту
+    @Test
+    void convert_ShouldUseRate_WhenConvertingToBase() {
+
+        assertEquals(new BigDecimal("925.00"), exchangeRates.convert(new BigDecimal("10.00"), "USD", "RUB"));
+    }
+
+    // кросс-курс с округлением половины вверх
+    @Test
+    void convertCents_ShouldRoundHalfUp_WhenCrossRate() {
+
+        // 1 USD = 0.925 EUR, 1 цент -> 0.925 евроцента
+        assertEquals(1, exchangeRates.convertCents(1, "USD", "EUR"));
+        assertEquals(9250, exchangeRates.convertCents(10000, "USD", "EUR"));
+    }
+
+    // большая сумма не переполняет long
+    @Test
+    void convertCents_ShouldNotOverflow_WhenAmountIsLarge() {
+
+        // произведение на курс в масштабе 1e8 выходит за пределы long
+        assertEquals(92_500_000_000_000_000L, exchangeRates.convertCents(1_000_000_000_000_000L, "USD", "RUB"));
+    }
+
+    // неизвестная валюта
+    @Test
+    void convert_ShouldThrow_WhenCurrencyUnknown() {
+
+        assertThrows(ExchangeRateNotFoundException.class,
+                () -> exchangeRates.convert(BigDecimal.TEN, "USD", "GBP"));
+    }
+}
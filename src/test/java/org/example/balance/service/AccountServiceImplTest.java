@@ -1,8 +1,11 @@
 package org.example.balance.service;
 
+import org.example.balance.diagnostics.LockDiagnostics;
 import org.example.balance.exception.AccountNotFoundException;
 import org.example.balance.exception.InsufficientFundsException;
+import org.example.balance.fx.ExchangeRates;
 import org.example.balance.model.Account;
+import org.example.balance.model.AccountBalance;
 import org.example.balance.model.Transaction;
 import org.example.balance.model.TransactionType;
 import org.example.balance.repository.AccountRepository;
@@ -11,6 +14,7 @@ import org.example.balance.service.impl.AccountServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -40,6 +44,12 @@ public class AccountServiceImplTest {
     @Mock
     private TransactionRepository transactionRepository;
 
+    @Mock
+    private LockDiagnostics lockDiagnostics;
+
+    @Mock
+    private ExchangeRates exchangeRates;
+
     @InjectMocks
     private AccountServiceImpl accountService;
 
@@ -60,7 +70,7 @@ public class AccountServiceImplTest {
     void accountReplenishment_ShouldIncreaseBalance() {
 
         BigDecimal amount = BigDecimal.valueOf(100);
-        when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(testAccount));
+        when(accountRepository.findByIdForUpdate(ACCOUNT_ID)).thenReturn(Optional.of(testAccount));
 
         accountService.accountReplenishment(ACCOUNT_ID, amount);
 
@@ -73,7 +83,7 @@ public class AccountServiceImplTest {
     @Test
     void accountReplenishment_ShouldThrowException_WhenAccountNotFound() {
 
-        when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.empty());
+        when(accountRepository.findByIdForUpdate(ACCOUNT_ID)).thenReturn(Optional.empty());
 
         assertThrows(AccountNotFoundException.class, () ->
                 accountService.accountReplenishment(ACCOUNT_ID, BigDecimal.valueOf(100.00))
@@ -85,7 +95,7 @@ public class AccountServiceImplTest {
     void accountWithdrew_ShouldDecreaseBalance_WhenSufficientFunds() {
 
         BigDecimal amount = BigDecimal.valueOf(100.00);
-        when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(testAccount));
+        when(accountRepository.findByIdForUpdate(ACCOUNT_ID)).thenReturn(Optional.of(testAccount));
 
         accountService.accountWithdrew(ACCOUNT_ID, amount);
 
@@ -99,7 +109,7 @@ public class AccountServiceImplTest {
     void accountWithdrew_ShouldThrowException_WhenInsufficientFunds() {
 
         BigDecimal amount = BigDecimal.valueOf(2000.00);
-        when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(testAccount));
+        when(accountRepository.findByIdForUpdate(ACCOUNT_ID)).thenReturn(Optional.of(testAccount));
 
         assertThrows(InsufficientFundsException.class, () ->
                 accountService.accountWithdrew(ACCOUNT_ID, amount)
@@ -110,7 +120,7 @@ public class AccountServiceImplTest {
     @Test
     void accountWithdrew_ShouldThrowException_WhenAccountNotFound() {
 
-        when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.empty());
+        when(accountRepository.findByIdForUpdate(ACCOUNT_ID)).thenReturn(Optional.empty());
 
         assertThrows(AccountNotFoundException.class, () ->
                 accountService.accountWithdrew(ACCOUNT_ID, BigDecimal.valueOf(100.00))
@@ -121,18 +131,33 @@ public class AccountServiceImplTest {
     @Test
     void getBalance_ShouldReturnCorrectBalance() {
 
-        when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(testAccount));
+        when(accountRepository.findBalanceById(ACCOUNT_ID))
+                .thenReturn(Optional.of(new AccountBalance(INITIAL_BALANCE, "RUB")));
 
         BigDecimal balance = accountService.getBalance(ACCOUNT_ID);
 
         assertEquals(INITIAL_BALANCE, balance);
+        verify(accountRepository, never()).findById(any());
+    }
+
+    // баланс в другой валюте
+    @Test
+    void getBalance_ShouldConvert_WhenCurrencyRequested() {
+
+        when(accountRepository.findBalanceById(ACCOUNT_ID))
+                .thenReturn(Optional.of(new AccountBalance(new BigDecimal("925.00"), "RUB")));
+        when(exchangeRates.convert(new BigDecimal("925.00"), "RUB", "USD")).thenReturn(new BigDecimal("10.00"));
+
+        BigDecimal balance = accountService.getBalance(ACCOUNT_ID, "USD");
+
+        assertEquals(new BigDecimal("10.00"), balance);
     }
 
     // баланс не существующего счета
     @Test
     void getBalance_ShouldThrowException_WhenAccountNotFound() {
 
-        when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.empty());
+        when(accountRepository.findBalanceById(ACCOUNT_ID)).thenReturn(Optional.empty());
 
         assertThrows(AccountNotFoundException.class, () ->
                 accountService.getBalance(ACCOUNT_ID)
@@ -156,7 +181,7 @@ public class AccountServiceImplTest {
 
         BigDecimal transferAmount = new BigDecimal("100.00");
 
-        when(accountRepository.findById(any(UUID.class)))
+        when(accountRepository.findByIdForUpdate(any(UUID.class)))
                 .thenAnswer(invocation -> {
                     UUID id = invocation.getArgument(0);
                     if (id.equals(fromId)) return Optional.of(fromAccount);
@@ -172,6 +197,62 @@ public class AccountServiceImplTest {
         verify(transactionRepository).save(any(Transaction.class));
     }
 
+    // каждый счет перевода регистрируется в диагностике перед своей блокировкой
+    @Test
+    void transferFromAccountToAccount_ShouldRegisterEachAccountBeforeLock() {
+
+        UUID fromId = UUID.fromString("dfbde3fd-5f73-4198-9a49-aa89c4109438");
+        UUID toId = UUID.fromString("58badf86-8aee-4f35-b0ce-5bfa1ac70e39");
+
+        Account fromAccount = new Account();
+        fromAccount.setId(fromId);
+        fromAccount.setBalance(new BigDecimal("1000.00"));
+
+        Account toAccount = new Account();
+        toAccount.setId(toId);
+        toAccount.setBalance(new BigDecimal("500.00"));
+
+        when(accountRepository.findByIdForUpdate(fromId)).thenReturn(Optional.of(fromAccount));
+        when(accountRepository.findByIdForUpdate(toId)).thenReturn(Optional.of(toAccount));
+
+        accountService.transferFromAccountToAccount(fromId, toId, new BigDecimal("100.00"));
+
+        InOrder inOrder = inOrder(lockDiagnostics, accountRepository);
+        inOrder.verify(lockDiagnostics).register("transfer", toId);
+        inOrder.verify(accountRepository).findByIdForUpdate(toId);
+        inOrder.verify(lockDiagnostics).register("transfer", fromId);
+        inOrder.verify(accountRepository).findByIdForUpdate(fromId);
+    }
+
+    // перевод между счетами в разных валютах
+    @Test
+    void transferFromAccountToAccount_ShouldConvert_WhenCurrenciesDiffer() {
+
+        UUID fromId = UUID.fromString("58badf86-8aee-4f35-b0ce-5bfa1ac70e39");
+        UUID toId = UUID.fromString("dfbde3fd-5f73-4198-9a49-aa89c4109438");
+
+        Account fromAccount = new Account();
+        fromAccount.setId(fromId);
+        fromAccount.setCurrency("USD");
+        fromAccount.setBalance(new BigDecimal("1000.00"));
+
+        Account toAccount = new Account();
+        toAccount.setId(toId);
+        toAccount.setCurrency("RUB");
+        toAccount.setBalance(new BigDecimal("500.00"));
+
+        when(accountRepository.findByIdForUpdate(fromId)).thenReturn(Optional.of(fromAccount));
+        when(accountRepository.findByIdForUpdate(toId)).thenReturn(Optional.of(toAccount));
+        when(exchangeRates.convert(new BigDecimal("10.00"), "USD", "RUB")).thenReturn(new BigDecimal("925.00"));
+
+        accountService.transferFromAccountToAccount(fromId, toId, new BigDecimal("10.00"));
+
+        assertEquals(new BigDecimal("990.00"), fromAccount.getBalance());
+        assertEquals(new BigDecimal("1425.00"), toAccount.getBalance());
+        verify(transactionRepository).save(argThat(transaction ->
+                "USD".equals(transaction.getCurrency()) && new BigDecimal("925.00").equals(transaction.getToAmount())));
+    }
+
     // перевод между счетами если не достаточно денег
     @Test
     void transferFromAccountToAccount_ShouldThrowException_WhenInsufficientFunds() {
@@ -183,8 +264,8 @@ public class AccountServiceImplTest {
 
         BigDecimal amount = BigDecimal.valueOf(2000.00);
 
-        when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(testAccount));
-        when(accountRepository.findById(toAccountId)).thenReturn(Optional.of(toAccount));
+        when(accountRepository.findByIdForUpdate(ACCOUNT_ID)).thenReturn(Optional.of(testAccount));
+        when(accountRepository.findByIdForUpdate(toAccountId)).thenReturn(Optional.of(toAccount));
 
         assertThrows(InsufficientFundsException.class, () ->
                 accountService.transferFromAccountToAccount(ACCOUNT_ID, toAccountId, amount)
@@ -197,7 +278,7 @@ public class AccountServiceImplTest {
 
         UUID toAccountId = UUID.randomUUID();
         UUID firstLock = ACCOUNT_ID.compareTo(toAccountId) < 0 ? ACCOUNT_ID : toAccountId;
-        when(accountRepository.findById(firstLock)).thenReturn(Optional.empty());
+        when(accountRepository.findByIdForUpdate(firstLock)).thenReturn(Optional.empty());
 
         assertThrows(AccountNotFoundException.class, () ->
                 accountService.transferFromAccountToAccount(ACCOUNT_ID, toAccountId, BigDecimal.valueOf(100.00))
@@ -209,8 +290,8 @@ public class AccountServiceImplTest {
     void transferFromAccountToAccount_ShouldThrowException_WhenDestinationAccountNotFound() {
 
         UUID toAccountId = UUID.randomUUID();
-        when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(testAccount));
-        when(accountRepository.findById(toAccountId)).thenReturn(Optional.empty());
+        when(accountRepository.findByIdForUpdate(ACCOUNT_ID)).thenReturn(Optional.of(testAccount));
+        when(accountRepository.findByIdForUpdate(toAccountId)).thenReturn(Optional.empty());
 
         assertThrows(AccountNotFoundException.class, () ->
                 accountService.transferFromAccountToAccount(ACCOUNT_ID, toAccountId, BigDecimal.valueOf(100.00))
@@ -230,7 +311,8 @@ public class AccountServiceImplTest {
         );
 
         when(accountRepository.existsById(ACCOUNT_ID)).thenReturn(true);
-        when(transactionRepository.findByAccountIdAndCreatedAtBetween(
+        // архивная часть отсекается в самом запросе по границе архива
+        when(transactionRepository.findWithArchiveByAccountIdAndCreatedAtBetween(
                 ACCOUNT_ID, from, to)).thenReturn(expectedTransactions);
 
         List<Transaction> actualTransactions = accountService.getStatement(ACCOUNT_ID, from, to);
@@ -0,0 +1,59 @@
+package org.example.balance.service;
+
+import org.example.balance.service.impl.ArchiveServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ArchiveServiceImplTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private ArchiveServiceImpl archiveService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(archiveService, "enabled", false);
+        ReflectionTestUtils.setField(archiveService, "horizonDays", 365L);
+        ReflectionTestUtils.setField(archiveService, "batchSize", 2);
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    // перенос порциями сдвигает границу только вместе с перенесенными строками
+    @Test
+    void archiveTransactions_ShouldAdvanceWatermark_WhenRowsMoved() {
+
+        LocalDateTime before = LocalDateTime.now().minusDays(365);
+        when(jdbcTemplate.update(contains("DELETE FROM transactions"), eq(before), eq(2))).thenReturn(2, 1);
+
+        long moved = archiveService.archiveTransactions(before);
+
+        assertEquals(3, moved);
+        verify(jdbcTemplate, times(2)).update(contains("archive_watermark"), eq(before));
+    }
+}
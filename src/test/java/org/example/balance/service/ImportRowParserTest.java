@@ -0,0 +1,89 @@
+package org.example.balance.service;
+
+import org.example.balance.dto.ImportFormat;
+import org.example.balance.exception.ImportValidationException;
+import org.example.balance.service.impl.ImportRowParser;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ImportRowParserTest {
+
+    private static final String ACCOUNT_ID = "123e4567-e89b-12d3-a456-426614174000";
+    private static final String TO_ACCOUNT_ID = "550e8400-e29b-41d4-a716-446655440000";
+    private static final String TRANSACTION_ID = "58badf86-8aee-4f35-b0ce-5bfa1ac70e39";
+
+    // счет из CSV
+    @Test
+    void accountRow_ShouldNormalizeCsv() {
+
+        String row = ImportRowParser.accountRow(ImportFormat.CSV,
+                ACCOUNT_ID + ", 1000.00 ,2025-02-13 10:00:00", 2);
+
+        assertEquals(ACCOUNT_ID + ",1000.00,2025-02-13T10:00,RUB", row);
+    }
+
+    // счет из NDJSON
+    @Test
+    void accountRow_ShouldReadNdjson() {
+
+        String row = ImportRowParser.accountRow(ImportFormat.NDJSON,
+                "{\"id\":\"" + ACCOUNT_ID + "\",\"balance\":500.5,\"createdAt\":\"2025-02-13T10:00:00\"}", 1);
+
+        assertEquals(ACCOUNT_ID + ",500.5,2025-02-13T10:00,RUB", row);
+    }
+
+    // операция в формате выгрузки COPY
+    @Test
+    void transactionRow_ShouldAcceptExportFormat() {
+
+        String line = TRANSACTION_ID + "," + ACCOUNT_ID + "," + TO_ACCOUNT_ID
+                + ",TRANSFER,100.00,900.00,2025-02-13 10:00:00.123,USD,9250.00";
+
+        String row = ImportRowParser.transactionRow(ImportFormat.CSV, line, 2);
+
+        assertEquals(TRANSACTION_ID + "," + ACCOUNT_ID + "," + TO_ACCOUNT_ID
+                + ",TRANSFER,100.00,900.00,2025-02-13T10:00:00.123,USD,9250.00", row);
+    }
+
+    // операция в одновалютном формате без валюты
+    @Test
+    void transactionRow_ShouldDefaultCurrency_WhenColumnsMissing() {
+
+        String line = TRANSACTION_ID + "," + ACCOUNT_ID + ",,DEPOSIT,100.00,900.00,2025-02-13T10:00:00";
+
+        String row = ImportRowParser.transactionRow(ImportFormat.CSV, line, 2);
+
+        assertEquals(TRANSACTION_ID + "," + ACCOUNT_ID + ",,DEPOSIT,100.00,900.00,2025-02-13T10:00,RUB,", row);
+    }
+
+    // перевод без счета получателя
+    @Test
+    void transactionRow_ShouldThrowException_WhenTransferWithoutDestination() {
+
+        String line = TRANSACTION_ID + "," + ACCOUNT_ID + ",,TRANSFER,100.00,900.00,2025-02-13T10:00:00";
+
+        assertThrows(ImportValidationException.class, () ->
+                ImportRowParser.transactionRow(ImportFormat.CSV, line, 2)
+        );
+    }
+
+    // сумма с дробной частью больше копеек
+    @Test
+    void accountRow_ShouldThrowException_WhenScaleTooLarge() {
+
+        assertThrows(ImportValidationException.class, () ->
+                ImportRowParser.accountRow(ImportFormat.CSV, ACCOUNT_ID + ",1.005,2025-02-13T10:00:00", 2)
+        );
+    }
+
+    // неверное количество полей
+    @Test
+    void transactionRow_ShouldThrowException_WhenFieldsMissing() {
+
+        assertThrows(ImportValidationException.class, () ->
+                ImportRowParser.transactionRow(ImportFormat.CSV, TRANSACTION_ID + "," + ACCOUNT_ID, 2)
+        );
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.balance.service;
+
+import org.example.balance.service.impl.ImportServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ImportServiceImplTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private ImportServiceImpl importService;
+
+    // сверка с не положительным limit не доходит до БД
+    @Test
+    void findLedgerMismatches_ShouldThrow_WhenLimitNotPositive() {
+
+        assertThrows(IllegalArgumentException.class, () -> importService.findLedgerMismatches(0));
+        assertThrows(IllegalArgumentException.class, () -> importService.findLedgerMismatches(-1));
+
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(UUID.class), any());
+    }
+}
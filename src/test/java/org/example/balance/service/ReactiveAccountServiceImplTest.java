@@ -0,0 +1,166 @@
+package org.example.balance.service;
+
+import org.example.balance.exception.AccountNotFoundException;
+import org.example.balance.exception.InsufficientFundsException;
+import org.example.balance.fx.ExchangeRates;
+import org.example.balance.model.Account;
+import org.example.balance.model.Transaction;
+import org.example.balance.repository.ReactiveAccountRepository;
+import org.example.balance.repository.ReactiveTransactionRepository;
+import org.example.balance.service.impl.ReactiveAccountServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ReactiveAccountServiceImplTest {
+
+    @Mock
+    private ReactiveAccountRepository accountRepository;
+
+    @Mock
+    private ReactiveTransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Mock
+    private ExchangeRates exchangeRates;
+
+    @InjectMocks
+    private ReactiveAccountServiceImpl accountService;
+
+    private Account testAccount;
+    private static final UUID ACCOUNT_ID = UUID.randomUUID();
+    private static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(500.00);
+
+    @BeforeEach
+    void setUp() {
+        testAccount = Account.builder().id(ACCOUNT_ID).balance(INITIAL_BALANCE).createdAt(LocalDateTime.now()).build();
+
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(accountRepository.updateBalance(any(Account.class))).thenReturn(Mono.empty());
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(Mono.empty());
+    }
+
+    // пополнение
+    @Test
+    void accountReplenishment_ShouldIncreaseBalance() {
+
+        BigDecimal amount = BigDecimal.valueOf(100);
+        when(accountRepository.findByIdForUpdate(ACCOUNT_ID)).thenReturn(Mono.just(testAccount));
+
+        StepVerifier.create(accountService.accountReplenishment(ACCOUNT_ID, amount))
+                .verifyComplete();
+
+        verify(accountRepository).updateBalance(testAccount);
+        verify(transactionRepository).save(any(Transaction.class));
+        assertEquals(INITIAL_BALANCE.add(amount), testAccount.getBalance());
+    }
+
+    // списание больше чем есть на балансе
+    @Test
+    void accountWithdrew_ShouldThrowException_WhenInsufficientFunds() {
+
+        when(accountRepository.findByIdForUpdate(ACCOUNT_ID)).thenReturn(Mono.just(testAccount));
+
+        StepVerifier.create(accountService.accountWithdrew(ACCOUNT_ID, BigDecimal.valueOf(2000.00)))
+                .verifyError(InsufficientFundsException.class);
+
+        verify(accountRepository, never()).updateBalance(any(Account.class));
+    }
+
+    // баланс не существующего счета
+    @Test
+    void getBalance_ShouldThrowException_WhenAccountNotFound() {
+
+        when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Mono.empty());
+
+        StepVerifier.create(accountService.getBalance(ACCOUNT_ID))
+                .verifyError(AccountNotFoundException.class);
+    }
+
+    // перевод между счетами: блокировки в порядке идентификаторов
+    @Test
+    void transferFromAccountToAccount_ShouldLockAccountsInOrder() {
+
+        UUID fromId = UUID.fromString("dfbde3fd-5f73-4198-9a49-aa89c4109438");
+        UUID toId = UUID.fromString("58badf86-8aee-4f35-b0ce-5bfa1ac70e39");
+
+        Account fromAccount = Account.builder().id(fromId).balance(new BigDecimal("1000.00")).createdAt(LocalDateTime.now()).build();
+        Account toAccount = Account.builder().id(toId).balance(new BigDecimal("500.00")).createdAt(LocalDateTime.now()).build();
+
+        when(accountRepository.findByIdForUpdate(fromId)).thenReturn(Mono.just(fromAccount));
+        when(accountRepository.findByIdForUpdate(toId)).thenReturn(Mono.just(toAccount));
+
+        StepVerifier.create(accountService.transferFromAccountToAccount(fromId, toId, new BigDecimal("100.00")))
+                .verifyComplete();
+
+        InOrder inOrder = inOrder(accountRepository);
+        inOrder.verify(accountRepository).findByIdForUpdate(toId);
+        inOrder.verify(accountRepository).findByIdForUpdate(fromId);
+        assertEquals(new BigDecimal("900.00"), fromAccount.getBalance());
+        assertEquals(new BigDecimal("600.00"), toAccount.getBalance());
+        verify(transactionRepository).save(any(Transaction.class));
+    }
+
+    // выписка с не существующего счета
+    @Test
+    void getStatement_ShouldThrowException_WhenAccountNotFound() {
+
+        when(accountRepository.existsById(ACCOUNT_ID)).thenReturn(Mono.just(false));
+
+        StepVerifier.create(accountService.getStatement(ACCOUNT_ID, LocalDateTime.now(), LocalDateTime.now()))
+                .verifyError(AccountNotFoundException.class);
+    }
+
+    // выписка читается вместе с архивом
+    @Test
+    void getStatement_ShouldReadArchive() {
+
+        LocalDateTime from = LocalDateTime.now().minusYears(2);
+        LocalDateTime to = LocalDateTime.now();
+        Transaction archived = Transaction.builder().id(UUID.randomUUID()).accountId(ACCOUNT_ID)
+                .amount(BigDecimal.TEN).createdAt(from.plusDays(1)).build();
+
+        when(accountRepository.existsById(ACCOUNT_ID)).thenReturn(Mono.just(true));
+        when(transactionRepository.findWithArchiveByAccountIdAndCreatedAtBetween(ACCOUNT_ID, from, to))
+                .thenReturn(Flux.just(archived));
+
+        StepVerifier.create(accountService.getStatement(ACCOUNT_ID, from, to))
+                .expectNext(archived)
+                .verifyComplete();
+    }
+
+    // баланс в другой валюте
+    @Test
+    void getBalance_ShouldConvert_WhenCurrencyRequested() {
+
+        testAccount.setCurrency("RUB");
+        when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Mono.just(testAccount));
+        when(exchangeRates.convert(INITIAL_BALANCE, "RUB", "USD")).thenReturn(new BigDecimal("5.41"));
+
+        StepVerifier.create(accountService.getBalance(ACCOUNT_ID, "USD"))
+                .expectNext(new BigDecimal("5.41"))
+                .verifyComplete();
+    }
+}
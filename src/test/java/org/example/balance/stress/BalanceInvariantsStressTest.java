@@ -0,0 +1,194 @@
+package org.example.balance.stress;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.example.balance.exception.InsufficientFundsException;
+import org.example.balance.model.Account;
+import org.example.balance.model.Transaction;
+import org.example.balance.repository.AccountRepository;
+import org.example.balance.repository.TransactionRepository;
+import org.example.balance.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Нагрузочная проверка инвариантов баланса на H2 в режиме PostgreSQL, без Testcontainers.
+ * <p>
+ * Сотни потоков выполняют пополнения, списания и переводы через AccountService по счетам
+ * с перекошенным распределением (несколько горячих счетов получают большую часть операций).
+ * После нагрузки проверяется сохранение общей суммы денег и то, что баланс каждого счета
+ * совпадает с результатом проигрывания его операций. Последовательности операций
+ * детерминированы сидом, размеры задаются системными свойствами stress.*.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "balance.warmup.enabled=false",
+        "balance.diagnostics.lock.enabled=false"
+})
+public class BalanceInvariantsStressTest {
+
+    private static final int THREADS = Integer.getInteger("stress.threads", 200);
+    private static final int OPERATIONS_PER_THREAD = Integer.getInteger("stress.operations", 100);
+    private static final int ACCOUNTS = Integer.getInteger("stress.accounts", 1000);
+    private static final long SEED = Long.getLong("stress.seed", 42L);
+
+    private static final long INITIAL_BALANCE_CENTS = 100_000;
+
+    @TestConfiguration
+    static class H2Config {
+
+        @Bean
+        DataSource dataSource() {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl("jdbc:h2:mem:stress;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                    + "DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=60000");
+            dataSource.setMaximumPoolSize(32);
+            return dataSource;
+        }
+    }
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void concurrentOperations_ShouldPreserveBalanceInvariants() throws Exception {
+
+        List<UUID> accountIds = createAccounts();
+
+        LongAdder depositedCents = new LongAdder();
+        LongAdder withdrawnCents = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        long[][] latencies = new long[THREADS][OPERATIONS_PER_THREAD];
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                SplittableRandom random = new SplittableRandom(SEED + thread);
+                start.await();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    UUID accountId = accountIds.get(skewedIndex(random));
+                    long cents = 1 + random.nextLong(5_000);
+                    BigDecimal amount = BigDecimal.valueOf(cents, 2);
+                    long began = System.nanoTime();
+                    try {
+                        int operation = random.nextInt(3);
+                        if (operation == 0) {
+                            accountService.accountReplenishment(accountId, amount);
+                            depositedCents.add(cents);
+                        } else if (operation == 1) {
+                            accountService.accountWithdrew(accountId, amount);
+                            withdrawnCents.add(cents);
+                        } else {
+                            UUID toId = accountIds.get(skewedIndex(random));
+                            if (toId.equals(accountId)) {
+                                toId = accountIds.get(random.nextInt(ACCOUNTS));
+                            }
+                            if (!toId.equals(accountId)) {
+                                accountService.transferFromAccountToAccount(accountId, toId, amount);
+                            }
+                        }
+                    } catch (InsufficientFundsException e) {
+                        rejected.increment();
+                    }
+                    latencies[thread][i] = System.nanoTime() - began;
+                }
+                return null;
+            }));
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.MINUTES);
+        }
+        long elapsedNanos = System.nanoTime() - began;
+        executor.shutdown();
+
+        report(latencies, elapsedNanos, rejected.sum());
+
+        Map<UUID, BigDecimal> balances = new HashMap<>();
+        accountRepository.findAll().forEach(account -> balances.put(account.getId(), account.getBalance()));
+
+        // сохранение денег: переводы не меняют общую сумму
+        BigDecimal expectedTotal = BigDecimal.valueOf(INITIAL_BALANCE_CENTS * ACCOUNTS
+                + depositedCents.sum() - withdrawnCents.sum(), 2);
+        BigDecimal actualTotal = balances.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, expectedTotal.compareTo(actualTotal), "общая сумма на счетах");
+
+        // баланс каждого счета равен начальному плюс проигранные операции по нему
+        Map<UUID, BigDecimal> replayed = new HashMap<>();
+        accountIds.forEach(id -> replayed.put(id, BigDecimal.valueOf(INITIAL_BALANCE_CENTS, 2)));
+        for (Transaction transaction : transactionRepository.findAll()) {
+            switch (transaction.getType()) {
+                case DEPOSIT -> replayed.merge(transaction.getAccountId(), transaction.getAmount(), BigDecimal::add);
+                case WITHDRAWAL -> replayed.merge(transaction.getAccountId(), transaction.getAmount().negate(), BigDecimal::add);
+                case TRANSFER -> {
+                    replayed.merge(transaction.getAccountId(), transaction.getAmount().negate(), BigDecimal::add);
+                    BigDecimal credited = transaction.getToAmount() != null ? transaction.getToAmount() : transaction.getAmount();
+                    replayed.merge(transaction.getToAccountId(), credited, BigDecimal::add);
+                }
+            }
+        }
+        for (UUID accountId : accountIds) {
+            BigDecimal balance = balances.get(accountId);
+            assertEquals(0, replayed.get(accountId).compareTo(balance), "баланс счета " + accountId);
+            assertTrue(balance.signum() >= 0, "отрицательный баланс счета " + accountId);
+        }
+    }
+
+    private List<UUID> createAccounts() {
+        List<Account> accounts = new ArrayList<>(ACCOUNTS);
+        Random random = new Random(SEED);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts.add(Account.builder()
+                    .id(new UUID(random.nextLong(), random.nextLong()))
+                    .balance(BigDecimal.valueOf(INITIAL_BALANCE_CENTS, 2))
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+        accountRepository.saveAll(accounts);
+        return accounts.stream().map(Account::getId).toList();
+    }
+
+    // Перекос к началу списка: около половины операций приходится на первые 10% счетов
+    private static int skewedIndex(SplittableRandom random) {
+        double r = random.nextDouble();
+        return (int) (ACCOUNTS * r * r * r);
+    }
+
+    private static void report(long[][] latencies, long elapsedNanos, long rejected) {
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("stress threads=%d operations=%d rejected=%d elapsed_s=%.2f throughput_ops=%.0f "
+                        + "p50_ms=%.2f p99_ms=%.2f max_ms=%.2f%n",
+                THREADS, all.length, rejected, seconds, all.length / seconds,
+                all[all.length / 2] / 1e6, all[(int) (all.length * 0.99)] / 1e6, all[all.length - 1] / 1e6);
+    }
+}